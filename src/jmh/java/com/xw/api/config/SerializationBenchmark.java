@@ -0,0 +1,110 @@
+package com.xw.api.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.xw.api.dto.ItemPageResponse;
+import com.xw.api.dto.ItemResponse;
+import com.xw.api.repository.projection.ItemRow;
+
+/*
+ * Serialization time of an item page as JSON, CBOR and Smile, with and without gzip.
+ * Payload sizes for each encoding are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+  @Param({ "10", "100", "500" })
+  private int size;
+
+  private ItemPageResponse page;
+  private ObjectMapper json;
+  private ObjectMapper cbor;
+  private ObjectMapper smile;
+
+  @Setup
+  public void setUp() throws IOException {
+    json = Jackson2ObjectMapperBuilder.json().build();
+    cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+    smile = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+
+    Timestamp now = new Timestamp(System.currentTimeMillis());
+    String categoryId = UUID.randomUUID().toString();
+    List<ItemResponse> items = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      items.add(new ItemRow((long) i, UUID.randomUUID().toString(), "Item " + i, "Description of item " + i,
+          BigDecimal.valueOf(i, 2), categoryId, "Tools", now, now).toResponse());
+    }
+    page = ItemPageResponse.builder().items(items).nextCursor(UUID.randomUUID().toString()).build();
+
+    System.out.printf("%nPayload bytes for %d items: json=%d (gzip %d) cbor=%d (gzip %d) smile=%d (gzip %d)%n",
+        size, json.writeValueAsBytes(page).length, gzip(json).length, cbor.writeValueAsBytes(page).length,
+        gzip(cbor).length, smile.writeValueAsBytes(page).length, gzip(smile).length);
+  }
+
+  @Benchmark
+  public byte[] json() throws IOException {
+    return json.writeValueAsBytes(page);
+  }
+
+  @Benchmark
+  public byte[] cbor() throws IOException {
+    return cbor.writeValueAsBytes(page);
+  }
+
+  @Benchmark
+  public byte[] smile() throws IOException {
+    return smile.writeValueAsBytes(page);
+  }
+
+  @Benchmark
+  public byte[] jsonGzip() throws IOException {
+    return gzip(json);
+  }
+
+  @Benchmark
+  public byte[] cborGzip() throws IOException {
+    return gzip(cbor);
+  }
+
+  @Benchmark
+  public byte[] smileGzip() throws IOException {
+    return gzip(smile);
+  }
+
+  private byte[] gzip(ObjectMapper mapper) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+      mapper.writeValue(gzip, page);
+    }
+    return bytes.toByteArray();
+  }
+}
@@ -0,0 +1,70 @@
+package com.xw.api.filter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.xw.api.service.TokenEpochRegistry;
+import com.xw.api.utils.JwtUtils;
+import com.xw.api.utils.JwtUtilsBenchmark;
+
+import jakarta.servlet.http.Cookie;
+
+/* Full filter execution for an authenticated request: token check, epoch check and principal construction */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtRequestFilterBenchmark {
+
+  private JwtRequestFilter filter;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    JwtUtils jwtUtils = JwtUtilsBenchmark.newJwtUtils();
+
+    // Outside a transaction publish applies immediately, so the repository is never consulted
+    TokenEpochRegistry tokenEpochRegistry = new TokenEpochRegistry(null, Duration.ofDays(1));
+    tokenEpochRegistry.publish("bench-user-id", 0L);
+    filter = new JwtRequestFilter(jwtUtils, tokenEpochRegistry);
+    token = jwtUtils.generateToken("bench@example.com", "bench-user-id", "ROLE_USER", 0L);
+  }
+
+  @Benchmark
+  public MockHttpServletResponse cookieAuthenticatedRequest() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/all");
+    request.setCookies(new Cookie("token", token));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    try {
+      filter.doFilter(request, response, new MockFilterChain());
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+    return response;
+  }
+
+  @Benchmark
+  public MockHttpServletResponse anonymousRequest() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/all");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, new MockFilterChain());
+    return response;
+  }
+}
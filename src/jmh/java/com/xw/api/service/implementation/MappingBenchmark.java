@@ -0,0 +1,128 @@
+package com.xw.api.service.implementation;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.xw.api.common.UserRole;
+import com.xw.api.dto.CategoryResponse;
+import com.xw.api.dto.ItemResponse;
+import com.xw.api.dto.UserResponse;
+import com.xw.api.entity.CategoryEntity;
+import com.xw.api.entity.ItemEntity;
+import com.xw.api.entity.UserEntity;
+import com.xw.api.repository.projection.ItemRow;
+
+/*
+ * Entity/projection to DTO mapping cost for list responses of different sizes.
+ * Lives in the services' package to call their package-private static convertToResponse methods directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+  @Param({ "10", "100", "1000", "10000" })
+  private int size;
+
+  private List<ItemEntity> items;
+  private List<ItemRow> itemRows;
+  private List<CategoryEntity> categories;
+  private List<UserEntity> users;
+
+  @Setup
+  public void setUp() {
+    Timestamp now = new Timestamp(System.currentTimeMillis());
+    CategoryEntity category = CategoryEntity.builder()
+        .id(1L)
+        .categoryId(UUID.randomUUID().toString())
+        .name("Tools")
+        .description("Hand and power tools")
+        .createdAt(now)
+        .updatedAt(now)
+        .build();
+
+    items = new ArrayList<>(size);
+    itemRows = new ArrayList<>(size);
+    categories = new ArrayList<>(size);
+    users = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      ItemEntity item = ItemEntity.builder()
+          .id((long) i)
+          .itemId(UUID.randomUUID().toString())
+          .name("Item " + i)
+          .description("Description of item " + i)
+          .price(BigDecimal.valueOf(i, 2))
+          .category(category)
+          .createdAt(now)
+          .updatedAt(now)
+          .build();
+      items.add(item);
+      itemRows.add(new ItemRow(item.getId(), item.getItemId(), item.getName(), item.getDescription(),
+          item.getPrice(), category.getCategoryId(), category.getName(), now, now));
+      categories.add(CategoryEntity.builder()
+          .id((long) i)
+          .categoryId(UUID.randomUUID().toString())
+          .name("Category " + i)
+          .createdAt(now)
+          .updatedAt(now)
+          .build());
+      users.add(UserEntity.builder()
+          .id((long) i)
+          .userId(UUID.randomUUID().toString())
+          .username("user" + i)
+          .userEmail("user" + i + "@example.com")
+          .role(UserRole.ROLE_USER)
+          .createdAt(now)
+          .updatedAt(now)
+          .build());
+    }
+  }
+
+  @Benchmark
+  public List<ItemResponse> itemEntities() {
+    return items.stream()
+        .map(ItemServiceImplementation::convertToResponse)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<ItemResponse> itemRows() {
+    return itemRows.stream()
+        .map(ItemRow::toResponse)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<CategoryResponse> categoryEntities() {
+    return categories.stream()
+        .map(category -> CategoryServiceImplementation.convertToResponse(category, 0))
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<UserResponse> userEntities() {
+    return users.stream()
+        .map(UserServiceImplementation::convertToResponse)
+        .collect(Collectors.toList());
+  }
+}
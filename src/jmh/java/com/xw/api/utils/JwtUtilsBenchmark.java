@@ -0,0 +1,67 @@
+package com.xw.api.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+  private static final String SECRET = "YmVuY2htYXJrLW9ubHktand0LXNlY3JldC1rZXktZm9yLXRoZS13YXJlaG91c2UtYXBp";
+
+  private JwtUtils jwtUtils;
+  private JwtUtils uncachedJwtUtils;
+  private String token;
+
+  public static JwtUtils newJwtUtils() {
+    return newJwtUtils(10_000L);
+  }
+
+  /* A JwtUtils configured as in the application; a verified-cache size of 0 disables the cache */
+  public static JwtUtils newJwtUtils(long verifiedCacheMaxSize) {
+    JwtUtils jwtUtils = new JwtUtils();
+    ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+    ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxSize", verifiedCacheMaxSize);
+    jwtUtils.init();
+    return jwtUtils;
+  }
+
+  @Setup
+  public void setUp() {
+    jwtUtils = newJwtUtils();
+    uncachedJwtUtils = newJwtUtils(0L);
+    token = generateToken();
+  }
+
+  @Benchmark
+  public String generateToken() {
+    return jwtUtils.generateToken("bench@example.com", "bench-user-id", "ROLE_USER", 0L);
+  }
+
+  /* Repeat request with the same cookie: answered from the verified-token cache */
+  @Benchmark
+  public JwtUtils.VerifiedToken verifyCached() {
+    return jwtUtils.verify(token);
+  }
+
+  /* First sight of a token: full signature check and claim parsing, with the verified-token cache disabled */
+  @Benchmark
+  public JwtUtils.VerifiedToken verifyUncached() {
+    return uncachedJwtUtils.verify(token);
+  }
+}
@@ -0,0 +1,6 @@
+package com.xw.api.common;
+
+/* What happened to the resource named in a ChangeEvent */
+public enum ChangeAction {
+  CREATED, UPDATED, DELETED
+}
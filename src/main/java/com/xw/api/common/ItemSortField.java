@@ -0,0 +1,36 @@
+package com.xw.api.common;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/* Sort keys accepted by GET /items, named after the ItemEntity attribute they order by */
+public enum ItemSortField {
+  CREATED_AT("createdAt"),
+  UPDATED_AT("updatedAt"),
+  NAME("name"),
+  PRICE("price");
+
+  private final String attribute;
+
+  ItemSortField(String attribute) {
+    this.attribute = attribute;
+  }
+
+  public String attribute() {
+    return attribute;
+  }
+
+  // Item names are unique, so ordering by name needs no id tie-break
+  public boolean unique() {
+    return this == NAME;
+  }
+
+  // Items without a price sort as if priced highest: last ascending, first descending
+  public boolean nullable() {
+    return this == PRICE;
+  }
+
+  public static Optional<ItemSortField> fromAttribute(String attribute) {
+    return Arrays.stream(values()).filter(field -> field.attribute.equals(attribute)).findFirst();
+  }
+}
@@ -0,0 +1,48 @@
+package com.xw.api.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  /* Detached CategoryEntity copies keyed by categoryId, used to resolve item categories */
+  public static final String CATEGORIES = "categories";
+
+  /* The full category list with item counts and its version, under a single key */
+  public static final String CATEGORY_LIST = "categoryList";
+
+  @Value("${app.cache.categories.max-size:1000}")
+  private long categoriesMaxSize;
+
+  @Value("${app.cache.categories.ttl:PT5M}")
+  private Duration categoriesTtl;
+
+  @Bean
+  public CacheManager cacheManager() {
+    CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+    cacheManager.registerCustomCache(CATEGORIES, Caffeine.newBuilder()
+        .maximumSize(categoriesMaxSize)
+        .expireAfterWrite(categoriesTtl)
+        .recordStats()
+        .build());
+    cacheManager.registerCustomCache(CATEGORY_LIST, Caffeine.newBuilder()
+        .maximumSize(1)
+        .expireAfterWrite(categoriesTtl)
+        .recordStats()
+        .build());
+    // Evictions issued inside a transaction are applied only after it commits,
+    // so a concurrent request cannot re-cache the row we are about to change
+    return new TransactionAwareCacheManagerProxy(cacheManager);
+  }
+}
@@ -0,0 +1,52 @@
+package com.xw.api.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/*
+ * Binary encodings of every JSON response for service-to-service clients: CBOR for Accept: application/cbor,
+ * Smile for Accept: application/x-jackson-smile. JSON stays the default for other Accept headers.
+ * The mappers come from the application's Jackson builder, so all three encodings carry the same fields.
+ */
+@Configuration
+public class ContentNegotiationConfig implements WebMvcConfigurer {
+
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+  }
+
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+  }
+
+  // Shared caches must key reads on Accept too; set before the handler so 304 responses carry it as well
+  @Override
+  public void addInterceptors(@NonNull InterceptorRegistry registry) {
+    registry.addInterceptor(new HandlerInterceptor() {
+      @Override
+      public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+          @NonNull Object handler) {
+        if ("GET".equalsIgnoreCase(request.getMethod()) || "HEAD".equalsIgnoreCase(request.getMethod())) {
+          response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return true;
+      }
+    });
+  }
+}
@@ -0,0 +1,27 @@
+package com.xw.api.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.id.SequenceMismatchStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaConfig {
+
+  @Value("${app.jpa.jdbc-batch-size:50}")
+  private int jdbcBatchSize;
+
+  /* Defaults only: anything set through spring.jpa.properties.* takes precedence */
+  @Bean
+  public HibernatePropertiesCustomizer batchingHibernatePropertiesCustomizer() {
+    return properties -> {
+      properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, jdbcBatchSize);
+      properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+      properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+      // Databases created before the switch to pooled sequences have increment 1 on the id sequences until V2 runs
+      properties.putIfAbsent(AvailableSettings.SEQUENCE_INCREMENT_SIZE_MISMATCH_STRATEGY, SequenceMismatchStrategy.FIX);
+    };
+  }
+}
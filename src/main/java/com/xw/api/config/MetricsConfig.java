@@ -0,0 +1,67 @@
+package com.xw.api.config;
+
+import java.util.Set;
+
+import org.hibernate.CallbackException;
+import org.hibernate.Interceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.xw.api.utils.RequestPersistenceCounter;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+
+@Configuration
+public class MetricsConfig {
+
+  // Timers that get percentile histograms, so latency can be aggregated per endpoint and per query method
+  private static final Set<String> HISTOGRAM_METERS = Set.of(
+      "http.server.requests",
+      "spring.data.repository.invocations",
+      "hibernate.request.statements",
+      "hibernate.request.entity.loads");
+
+  @Bean
+  public MeterFilter histogramMeterFilter() {
+    return new MeterFilter() {
+      @Override
+      public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        if (!HISTOGRAM_METERS.contains(id.getName())) {
+          return config;
+        }
+        return DistributionStatisticConfig.builder()
+            .percentilesHistogram(true)
+            .build()
+            .merge(config);
+      }
+    };
+  }
+
+  /* Hibernate statistics feed the hibernate.* meters; the hooks feed the per-request counts */
+  @Bean
+  public HibernatePropertiesCustomizer metricsHibernatePropertiesCustomizer() {
+    return properties -> {
+      properties.putIfAbsent(AvailableSettings.GENERATE_STATISTICS, true);
+      // Statistics would otherwise also print a metrics summary for every session
+      properties.putIfAbsent(AvailableSettings.LOG_SESSION_METRICS, false);
+      properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+        RequestPersistenceCounter.statementPrepared();
+        return sql;
+      });
+      properties.putIfAbsent(AvailableSettings.INTERCEPTOR, new Interceptor() {
+        @Override
+        public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types)
+            throws CallbackException {
+          RequestPersistenceCounter.entityLoaded();
+          return false;
+        }
+      });
+    };
+  }
+}
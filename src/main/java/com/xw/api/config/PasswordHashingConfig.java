@@ -0,0 +1,46 @@
+package com.xw.api.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.xw.api.utils.BoundedPasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+@Configuration
+public class PasswordHashingConfig {
+
+  @Value("${app.security.password-hashing.threads:0}")
+  private int threads;
+
+  @Value("${app.security.password-hashing.queue-capacity:64}")
+  private int queueCapacity;
+
+  /* BCrypt runs here instead of on request threads; a full queue rejects new work immediately */
+  @Bean(destroyMethod = "shutdown")
+  public ThreadPoolExecutor passwordHashingExecutor(MeterRegistry meterRegistry) {
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hashing-");
+    threadFactory.setDaemon(true);
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    // Queue depth, active threads and completed tasks as executor.* metrics tagged name=password.hashing
+    new ExecutorServiceMetrics(executor, "password.hashing", Tags.empty()).bindTo(meterRegistry);
+    return executor;
+  }
+
+  @Bean
+  public PasswordEncoder passwordEncoder(ThreadPoolExecutor passwordHashingExecutor, MeterRegistry meterRegistry) {
+    return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingExecutor, meterRegistry);
+  }
+}
@@ -16,7 +16,6 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -26,6 +25,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.xw.api.filter.JwtRequestFilter;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 
@@ -36,6 +36,7 @@ public class SecurityConfig {
 
   private final UserDetailsService userDetailsService;
   private final JwtRequestFilter jwtRequestFilter;
+  private final PasswordEncoder passwordEncoder;
 
   @Bean
   public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -45,7 +46,12 @@ public class SecurityConfig {
       .cors(Customizer.withDefaults())
       .authorizeHttpRequests(auth -> auth
         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+        // Completes a request that was authorized when it started, e.g. a closing /changes/stream
+        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
         .requestMatchers("/login", "/logout", "/check-login").permitAll()
+        // Scraped without a token; restrict /actuator/prometheus to the monitoring network at the proxy
+        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+        .requestMatchers("/actuator/**").hasAnyRole("ROOT", "ADMIN")
         .requestMatchers("/api/v1.0/categories/**", "/api/v1.0/items/**").hasAnyRole("ROOT", "USER", "ADMIN")
         .requestMatchers("/api/v1.0/admin/**").hasAnyRole("ROOT", "ADMIN")
 
@@ -70,18 +76,15 @@ public class SecurityConfig {
     return http.build();
   }
 
-  @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
-  }
-
   @Bean
   public CorsConfigurationSource corsConfigurationSource() {
     CorsConfiguration cors = new CorsConfiguration();
     cors.setAllowedOrigins(List.of("http://localhost:5173"));
     cors.setAllowCredentials(true);
     cors.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
-    cors.setAllowedHeaders(List.of("Origin", "Content-Type", "Accept", "Authorization"));
+    cors.setAllowedHeaders(List.of("Origin", "Content-Type", "Accept", "Authorization", "If-Match", "If-None-Match"));
+    // Cross-origin scripts only see these response headers when they are listed here
+    cors.setExposedHeaders(List.of("ETag", "Last-Modified", "Retry-After"));
 
     UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
     source.registerCorsConfiguration("/**", cors);
@@ -91,7 +94,7 @@ public class SecurityConfig {
   @Bean
   public AuthenticationManager authenticationManager() {
     DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userDetailsService);
-    authProvider.setPasswordEncoder(passwordEncoder());
+    authProvider.setPasswordEncoder(passwordEncoder);
     return new ProviderManager(authProvider);
   }
 }
@@ -14,13 +14,14 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.xw.api.dto.AuthRequest;
 import com.xw.api.dto.AuthResponse;
+import com.xw.api.dto.SessionResponse;
 import com.xw.api.exception.AuthenticationException;
 import com.xw.api.exception.UserNotFoundException;
+import com.xw.api.repository.projection.UserTokenRow;
 import com.xw.api.service.UserService;
 import com.xw.api.utils.JwtUtils;
 
@@ -32,8 +33,6 @@ import org.springframework.web.bind.annotation.GetMapping;
 @RequiredArgsConstructor
 public class AuthController {
 
-  private final UserDetailsService userDetailsService;
-
   private final UserService userService;
 
   private final AuthenticationManager authenticationManager;
@@ -41,20 +40,11 @@ public class AuthController {
   private final JwtUtils jwtUtils;
 
   @GetMapping("/check-login")
-  public ResponseEntity<AuthResponse> checkLogin(@AuthenticationPrincipal UserDetails userDetails) {
+  public ResponseEntity<SessionResponse> checkLogin(@AuthenticationPrincipal UserDetails userDetails) {
     if (userDetails == null) {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
-    String userEmail = userDetails.getUsername();
-    if (userService.hasCurrentUserNeverLoggedIn(userEmail)) {
-      try {
-        userService.updateLastLoginAt(userEmail);
-      } catch (UserNotFoundException e) {
-        throw new AuthenticationException("Failed to update last login time as no user found", e);
-      }
-    }
-    String role = userService.getUserRole(userEmail);
-    return ResponseEntity.ok(new AuthResponse(userEmail, role));
+    return ResponseEntity.ok(userService.getSessionSnapshot(userDetails));
   }
 
   @PostMapping("/login")
@@ -70,11 +60,16 @@ public class AuthController {
       // Set the authentication in the security context
       SecurityContextHolder.getContext().setAuthentication(authentication);
 
-      // If authentication is successful, load user details
-      final UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+      // If authentication is successful, read what the token carries: public id, role and token epoch
+      final UserTokenRow user;
+      try {
+        user = userService.getTokenRow(userEmail);
+      } catch (UserNotFoundException e) {
+        throw new AuthenticationException("Failed to issue token as no user found", e);
+      }
       // Generate a token
-      final String token = jwtUtils.generateToken(userDetails);
-      final String role = userService.getUserRole(userEmail);
+      final String token = jwtUtils.generateToken(user.userEmail(), user.userId(), user.role().name(), user.tokenEpoch());
+      final String role = user.role().name();
       // Set rememberMe cookie if requested
       Integer maxAge = rememberMe != null && rememberMe ? 7 * 24 * 60 * 60 : 24 * 60 * 60;
       ResponseCookie cookie = ResponseCookie.from("token", token)
@@ -84,11 +79,7 @@ public class AuthController {
           .sameSite("None")
           .maxAge(maxAge)
           .build();
-      try {
-        userService.updateLastLoginAt(userEmail);
-      } catch (UserNotFoundException e) {
-        throw new AuthenticationException("Failed to update last login time as no user found", e);
-      }
+      userService.recordLogin(user);
 
       response.setHeader(HttpHeaders.SET_COOKIE, cookie.toString());
       return ResponseEntity.ok(new AuthResponse(userEmail, role));
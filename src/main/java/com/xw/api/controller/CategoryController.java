@@ -6,17 +6,24 @@ import org.springframework.web.server.ResponseStatusException;
 
 import com.xw.api.dto.CategoryRequest;
 import com.xw.api.dto.CategoryResponse;
+import com.xw.api.dto.ResourceVersion;
+import com.xw.api.dto.VersionedResponse;
+import com.xw.api.exception.VersionConflictException;
 import com.xw.api.service.CategoryService;
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -38,27 +45,52 @@ public class CategoryController {
     }
   }
 
+  // If-Match with the ETag of GET /categories/{categoryId} makes the update conditional: 412 once it has changed
   @PutMapping("/admin/categories/{categoryId}")
-  @ResponseStatus(HttpStatus.OK)
-  public CategoryResponse updateCategory(@PathVariable String categoryId, @RequestBody CategoryRequest request) {
+  public ResponseEntity<CategoryResponse> updateCategory(@PathVariable String categoryId,
+      @RequestBody CategoryRequest request,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
     try {
-      return categoryService.updateCategory(categoryId, request);
+      VersionedResponse<CategoryResponse> updated = categoryService.updateCategory(categoryId, request,
+          ResourceVersion.requiredVersion(ifMatch));
+      return ResponseEntity.ok()
+          .eTag(updated.version().etag())
+          .lastModified(updated.version().lastModified())
+          .body(updated.body());
+    } catch (VersionConflictException e) {
+      throw e;
     } catch (Exception e) {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Failed to update category: " + e.getMessage(), e);
     }
   }
   
   @GetMapping("/categories/all")
-  @ResponseStatus(HttpStatus.OK)
-  public List<CategoryResponse> getAllCategories() {
-    return categoryService.getAllCategories();
+  public ResponseEntity<List<CategoryResponse>> getAllCategories(WebRequest webRequest) {
+    // List and version come from one cache entry, so the ETag always matches the body sent with it
+    VersionedResponse<List<CategoryResponse>> categories = categoryService.getVersionedCategories();
+    ResourceVersion version = categories.version();
+    if (webRequest.checkNotModified(version.etag(), version.lastModified())) {
+      return null;
+    }
+    return ResponseEntity.ok()
+        .eTag(version.etag())
+        .lastModified(version.lastModified())
+        .body(categories.body());
   }
 
   @GetMapping("/categories/{categoryId}")
-  @ResponseStatus(HttpStatus.OK)
-  public CategoryResponse getCategoryById(@PathVariable String categoryId) {
-    return categoryService.getCategoryById(categoryId)
+  public ResponseEntity<CategoryResponse> getCategoryById(@PathVariable String categoryId, WebRequest webRequest) {
+    ResourceVersion version = categoryService.getCategoryVersion(categoryId)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found with id: " + categoryId));
+    if (webRequest.checkNotModified(version.etag(), version.lastModified())) {
+      return null;
+    }
+    CategoryResponse category = categoryService.getCategoryById(categoryId)
         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found with id: " + categoryId));
+    return ResponseEntity.ok()
+        .eTag(version.etag())
+        .lastModified(version.lastModified())
+        .body(category);
   }
 
   @DeleteMapping("/admin/categories/{categoryId}")
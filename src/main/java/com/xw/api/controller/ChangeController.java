@@ -0,0 +1,24 @@
+package com.xw.api.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.xw.api.service.ChangeFeed;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+public class ChangeController {
+
+  private final ChangeFeed changeFeed;
+
+  // EventSource sends Last-Event-ID by itself when it reconnects
+  @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+    return changeFeed.subscribe(lastEventId);
+  }
+}
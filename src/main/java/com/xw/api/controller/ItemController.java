@@ -1,16 +1,36 @@
 package com.xw.api.controller;
 
+import java.io.IOException;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.xw.api.dto.ChangeSetResponse;
+import com.xw.api.dto.ItemBatchResponse;
+import com.xw.api.dto.ItemBulkDeleteRequest;
+import com.xw.api.dto.ItemBulkResponse;
+import com.xw.api.dto.ItemFilter;
+import com.xw.api.dto.ItemPageResponse;
+import com.xw.api.dto.ItemPriceChangeRequest;
+import com.xw.api.dto.ItemReassignRequest;
 import com.xw.api.dto.ItemRequest;
 import com.xw.api.dto.ItemResponse;
+import com.xw.api.dto.ResourceVersion;
+import com.xw.api.dto.VersionedResponse;
+import com.xw.api.exception.VersionConflictException;
 import com.xw.api.service.ItemService;
+import com.xw.api.service.SyncService;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -25,6 +45,8 @@ public class ItemController {
 
   private final ItemService itemService;
 
+  private final SyncService syncService;
+
   @PostMapping("/admin/items")
   @ResponseStatus(HttpStatus.CREATED)
   public ItemResponse createItem(@RequestBody ItemRequest request) {
@@ -35,22 +57,92 @@ public class ItemController {
     }
   }
 
+  @PostMapping(value = "/admin/items/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseStatus(HttpStatus.OK)
+  public ItemBatchResponse importItems(@RequestBody List<ItemRequest> requests) {
+    return itemService.importItems(requests);
+  }
+
+  @PostMapping(value = "/admin/items/batch", consumes = "application/x-ndjson")
+  @ResponseStatus(HttpStatus.OK)
+  public ItemBatchResponse importItemsNdjson(HttpServletRequest request) throws IOException {
+    return itemService.importItems(request.getInputStream());
+  }
+
+  // Set-based bulk changes, each in one transaction; responses report the affected row counts
+  @PostMapping("/admin/items/bulk/reassign")
+  @ResponseStatus(HttpStatus.OK)
+  public ItemBulkResponse reassignItems(@RequestBody ItemReassignRequest request) {
+    return itemService.reassignItems(request);
+  }
+
+  @PostMapping("/admin/items/bulk/price")
+  @ResponseStatus(HttpStatus.OK)
+  public ItemBulkResponse changePrices(@RequestBody ItemPriceChangeRequest request) {
+    return itemService.changePrices(request);
+  }
+
+  @PostMapping("/admin/items/bulk/delete")
+  @ResponseStatus(HttpStatus.OK)
+  public ItemBulkResponse deleteItems(@RequestBody ItemBulkDeleteRequest request) {
+    return itemService.deleteItems(request);
+  }
+
   @GetMapping("/items/{itemId}")
+  public ResponseEntity<ItemResponse> getItemById(@PathVariable String itemId, WebRequest webRequest) {
+    ResourceVersion version = itemService.getItemVersion(itemId)
+        .orElseThrow(() -> new RuntimeException("Item not found: " + itemId));
+    // Answers 304 from the version check alone, before the item is loaded
+    if (webRequest.checkNotModified(version.etag(), version.lastModified())) {
+      return null;
+    }
+    ItemResponse item = itemService.getItemById(itemId).orElseThrow(() -> new RuntimeException("Item not found: " + itemId));
+    return ResponseEntity.ok()
+        .eTag(version.etag())
+        .lastModified(version.lastModified())
+        .body(item);
+  }
+
+  // Filters and sort keys: see ItemFilter and ItemSortField; sort is "<attribute>[,asc|desc]", default createdAt
+  @GetMapping("/items")
   @ResponseStatus(HttpStatus.OK)
-  public ItemResponse getItemById(@PathVariable String itemId) {
-    return itemService.getItemById(itemId).orElseThrow(() -> new RuntimeException("Item not found: " + itemId));
+  public ItemPageResponse findItems(ItemFilter filter, @RequestParam(required = false) String sort,
+      @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+    return itemService.findItems(filter, sort, cursor, size);
   }
 
   @GetMapping("/items/all")
   @ResponseStatus(HttpStatus.OK)
-  public List<ItemResponse> getAllItems() {
-    return itemService.getAllItems();
+  public ItemPageResponse getAllItems(@RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+    return itemService.getAllItems(cursor, size);
+  }
+
+  @GetMapping("/items/search")
+  @ResponseStatus(HttpStatus.OK)
+  public List<ItemResponse> searchItems(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+    return itemService.searchItems(q, limit);
+  }
+
+  // Delta sync: everything changed or deleted since the watermark of the previous sync; omit since for a full sync
+  @GetMapping("/items/changes")
+  @ResponseStatus(HttpStatus.OK)
+  public ChangeSetResponse getChanges(@RequestParam(required = false) String since,
+      @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+    return syncService.getChanges(since, cursor, size);
+  }
+
+  @GetMapping(value = "/items/export", produces = "application/x-ndjson")
+  public void exportItems(HttpServletResponse response) throws IOException {
+    response.setContentType("application/x-ndjson");
+    itemService.exportItems(response.getOutputStream());
   }
 
   @GetMapping("/items/{categoryId}/all")
   @ResponseStatus(HttpStatus.OK)
-  public List<ItemResponse> getItemsByCategory(@PathVariable String categoryId) {
-    return itemService.getItemsByCategory(categoryId);
+  public ItemPageResponse getItemsByCategory(@PathVariable String categoryId,
+      @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+    return itemService.getItemsByCategory(categoryId, cursor, size);
   }
 
   @GetMapping("/items/{categoryId}/count")
@@ -69,11 +161,19 @@ public class ItemController {
     }
   }
 
+  // If-Match with the ETag of GET /items/{itemId} makes the update conditional: 412 once the item has changed
   @PutMapping("/admin/items/{id}")
-  @ResponseStatus(HttpStatus.OK)
-  public ItemResponse updateItem(@PathVariable("id") String itemId, @RequestBody ItemRequest request) {
+  public ResponseEntity<ItemResponse> updateItem(@PathVariable("id") String itemId, @RequestBody ItemRequest request,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
     try {
-      return itemService.updateItem(itemId, request);
+      VersionedResponse<ItemResponse> updated = itemService.updateItem(itemId, request,
+          ResourceVersion.requiredVersion(ifMatch));
+      return ResponseEntity.ok()
+          .eTag(updated.version().etag())
+          .lastModified(updated.version().lastModified())
+          .body(updated.body());
+    } catch (VersionConflictException e) {
+      throw e;
     } catch (Exception e) {
       throw new RuntimeException("Failed to update item: " + itemId + ", error message: " + e.getMessage(), e);
     }
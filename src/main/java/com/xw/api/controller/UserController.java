@@ -2,7 +2,9 @@ package com.xw.api.controller;
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,13 +13,18 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.xw.api.dto.ResourceVersion;
 import com.xw.api.dto.UserRequest;
 import com.xw.api.dto.UserResponse;
+import com.xw.api.dto.VersionedResponse;
+import com.xw.api.exception.PasswordHashingRejectedException;
+import com.xw.api.exception.VersionConflictException;
 import com.xw.api.service.UserService;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.PutMapping;
 
 
@@ -34,6 +41,8 @@ public class UserController {
   public UserResponse createUser(@RequestBody UserRequest request) {
     try {
       return userService.createUser(request);
+    } catch (PasswordHashingRejectedException e) {
+      throw e;
     } catch (Exception e) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Failed to create user: " + request.getUserEmail() + ", error message: " + e.getMessage(), e);
     }
@@ -55,18 +64,23 @@ public class UserController {
     }
   }
 
+  // The ETag is the user's version, for If-Match on PUT
   @GetMapping("/users/{userEmail}")
-  @ResponseStatus(HttpStatus.OK)
-  public UserResponse getUserByEmail(@PathVariable String userEmail) {
-    return userService.getUserByEmail(userEmail)
+  public ResponseEntity<UserResponse> getUserByEmail(@PathVariable String userEmail) {
+    VersionedResponse<UserResponse> user = userService.getUserByEmail(userEmail)
         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found with email: " + userEmail));
+    return ResponseEntity.ok().eTag(user.version().etag()).body(user.body());
   }
 
   @PutMapping("/users/{userEmail}")
-  @ResponseStatus(HttpStatus.OK)
-  public UserResponse updateUser(@PathVariable String userEmail, @RequestBody UserRequest request) {
+  public ResponseEntity<UserResponse> updateUser(@PathVariable String userEmail, @RequestBody UserRequest request,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
     try {
-      return userService.updateUser(userEmail, request);
+      VersionedResponse<UserResponse> updated = userService.updateUser(userEmail, request,
+          ResourceVersion.requiredVersion(ifMatch));
+      return ResponseEntity.ok().eTag(updated.version().etag()).body(updated.body());
+    } catch (PasswordHashingRejectedException | VersionConflictException e) {
+      throw e;
     } catch (Exception e) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Failed to update user: " + userEmail + ", error message: " + e.getMessage(), e);
     }
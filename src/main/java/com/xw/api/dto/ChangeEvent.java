@@ -0,0 +1,22 @@
+package com.xw.api.dto;
+
+import com.xw.api.common.ChangeAction;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ChangeEvent {
+  // "item", "category", or "items" for set-based changes that touch many items at once
+  private String resource;
+  private ChangeAction action;
+  // itemId or categoryId; null for "items"
+  private String resourceId;
+  // The new ItemResponse or CategoryResponse, the bulk request for "items", null for deletions
+  private Object data;
+}
@@ -0,0 +1,23 @@
+package com.xw.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ChangeSetResponse {
+  // Items and categories created or changed since the watermark, in their current state
+  private List<ItemResponse> items;
+  private List<CategoryResponse> categories;
+  private List<TombstoneResponse> deleted;
+  // Pass as `since` on the next sync, once nextCursor is null
+  private String watermark;
+  // Opaque token for the rest of this change set, null when it is complete
+  private String nextCursor;
+}
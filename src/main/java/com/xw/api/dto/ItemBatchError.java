@@ -0,0 +1,17 @@
+package com.xw.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ItemBatchError {
+  // Zero-based position of the rejected row in the submitted array or NDJSON stream
+  private Integer index;
+  private String name;
+  private String message;
+}
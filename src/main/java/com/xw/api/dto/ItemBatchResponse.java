@@ -0,0 +1,18 @@
+package com.xw.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ItemBatchResponse {
+  private Integer received;
+  private Integer created;
+  private List<ItemBatchError> errors;
+}
@@ -0,0 +1,16 @@
+package com.xw.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ItemBulkDeleteRequest {
+  private List<String> itemIds;
+}
@@ -0,0 +1,19 @@
+package com.xw.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ItemBulkResponse {
+  // Rows changed or deleted
+  private Integer affected;
+  // Bulk delete only: requested itemIds that did not exist
+  private List<String> missingItemIds;
+}
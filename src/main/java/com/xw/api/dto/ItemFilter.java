@@ -0,0 +1,25 @@
+package com.xw.api.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/* Optional, combinable filters of GET /items; lower bounds are inclusive, upper bounds of time ranges exclusive */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ItemFilter {
+  private String categoryId;
+  private BigDecimal minPrice;
+  private BigDecimal maxPrice;
+  private String namePrefix;
+  private Instant createdFrom;
+  private Instant createdTo;
+  private Instant updatedFrom;
+  private Instant updatedTo;
+}
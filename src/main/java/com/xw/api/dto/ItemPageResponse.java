@@ -0,0 +1,18 @@
+package com.xw.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ItemPageResponse {
+  private List<ItemResponse> items;
+  // Opaque token for the next page, null when this is the last page
+  private String nextCursor;
+}
@@ -0,0 +1,19 @@
+package com.xw.api.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/* Changes the price of every item matching the filter by either an amount or a percentage (e.g. -10 for 10% off) */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ItemPriceChangeRequest {
+  private ItemFilter filter;
+  private BigDecimal amount;
+  private BigDecimal percent;
+}
@@ -0,0 +1,15 @@
+package com.xw.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ItemReassignRequest {
+  private String fromCategoryId;
+  private String toCategoryId;
+}
@@ -0,0 +1,65 @@
+package com.xw.api.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+
+import org.springframework.util.DigestUtils;
+
+import com.xw.api.exception.VersionConflictException;
+import com.xw.api.repository.projection.EntityVersionRow;
+import com.xw.api.repository.projection.VersionRow;
+
+/*
+ * Validators for conditional GET, and for single rows the If-Match precondition of PUT: a weak ETag and the
+ * Last-Modified time in epoch milliseconds.
+ * Weak because one version is served as JSON, CBOR or Smile, possibly gzip-compressed; Tomcat also leaves
+ * responses with a strong ETag uncompressed.
+ */
+public record ResourceVersion(String etag, long lastModified) {
+
+  public static ResourceVersion of(String scope, VersionRow... rows) {
+    StringBuilder fingerprint = new StringBuilder(scope);
+    long lastModified = 0;
+    for (VersionRow row : rows) {
+      Timestamp modified = row.lastModified();
+      fingerprint.append('|').append(modified == null ? "-" : modified.toInstant()).append('|').append(row.count());
+      if (modified != null) {
+        lastModified = Math.max(lastModified, modified.getTime());
+      }
+    }
+    String etag = "W/\"" + DigestUtils.md5DigestAsHex(fingerprint.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    return new ResourceVersion(etag, lastModified);
+  }
+
+  /* A single row: W/"<version>" or W/"<version>.<qualifier>", so If-Match can name the version back */
+  public static ResourceVersion of(EntityVersionRow row) {
+    String tag = row.qualifier() == null ? row.version().toString() : row.version() + "." + row.qualifier();
+    long lastModified = row.lastModified() == null ? 0 : row.lastModified().getTime();
+    return new ResourceVersion("W/\"" + tag + "\"", lastModified);
+  }
+
+  /*
+   * The row version an If-Match header requires: null without one or for "*". Only the version is compared, so the
+   * weak tags served by GET work as preconditions; they name the stored row whatever encoding it was sent in.
+   * A header that names no version of a single row can never match.
+   */
+  public static Long requiredVersion(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    String tag = ifMatch.trim();
+    if (tag.startsWith("W/")) {
+      tag = tag.substring(2);
+    }
+    if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+      throw new VersionConflictException("If-Match is not a single entity tag: " + ifMatch, true);
+    }
+    tag = tag.substring(1, tag.length() - 1);
+    int qualifier = tag.indexOf('.');
+    try {
+      return Long.valueOf(qualifier < 0 ? tag : tag.substring(0, qualifier));
+    } catch (NumberFormatException e) {
+      throw new VersionConflictException("If-Match does not name a version: " + ifMatch, true);
+    }
+  }
+}
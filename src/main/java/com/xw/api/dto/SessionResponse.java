@@ -0,0 +1,13 @@
+package com.xw.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SessionResponse {
+  private String userEmail;
+  private String role;
+  // True only on the request that recorded the user's first login
+  private boolean firstLogin;
+}
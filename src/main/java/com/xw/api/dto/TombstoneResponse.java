@@ -0,0 +1,19 @@
+package com.xw.api.dto;
+
+import java.sql.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class TombstoneResponse {
+  // "item" or "category"
+  private String resource;
+  private String resourceId;
+  private Timestamp deletedAt;
+}
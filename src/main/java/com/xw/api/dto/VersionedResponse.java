@@ -0,0 +1,5 @@
+package com.xw.api.dto;
+
+/* A written or read representation together with the validators of the row version it shows */
+public record VersionedResponse<T>(T body, ResourceVersion version) {
+}
@@ -2,6 +2,7 @@ package com.xw.api.entity;
 
 import java.sql.Timestamp;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -10,7 +11,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -25,7 +28,8 @@ import lombok.NoArgsConstructor;
 public class CategoryEntity {
   
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_id_seq")
+  @SequenceGenerator(name = "categories_id_seq", sequenceName = "categories_id_seq", allocationSize = 50)
   private Long id;
   @Column(unique = true, nullable = false)
   private String name;
@@ -39,4 +43,16 @@ public class CategoryEntity {
   private Timestamp createdAt;
   @UpdateTimestamp
   private Timestamp updatedAt;
+  // Maintained by in-database increments from item writes (CategoryRepository.adjustItemsCount),
+  // never written from the entity so a stale loaded value cannot overwrite concurrent changes.
+  // Those increments also move updatedAt, so delta syncs return the new count
+  @Builder.Default
+  @ColumnDefault("0")
+  @Column(nullable = false, insertable = false, updatable = false)
+  private Integer itemsCount = 0;
+  // Optimistic lock, as on ItemEntity; item count adjustments leave it alone
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long version;
 }
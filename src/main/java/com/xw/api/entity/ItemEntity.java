@@ -3,6 +3,7 @@ package com.xw.api.entity;
 import java.math.BigDecimal;
 import java.sql.Timestamp;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
@@ -10,19 +11,26 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "items")
+@Table(name = "items", indexes = {
+    @Index(name = "idx_items_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_items_category_id_created_at_id", columnList = "category_id, created_at, id")
+})
 @Builder
 @Data
 @AllArgsConstructor
@@ -30,7 +38,8 @@ import lombok.NoArgsConstructor;
 public class ItemEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_id_seq")
+  @SequenceGenerator(name = "items_id_seq", sequenceName = "items_id_seq", allocationSize = 50)
   private Long id;
 
   @Column(unique = true, nullable = false)
@@ -40,7 +49,7 @@ public class ItemEntity {
   @Column(unique = true, nullable = false)
   private String itemId;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "category_id", nullable = false)
   @OnDelete(action = OnDeleteAction.RESTRICT)
   private CategoryEntity category;
@@ -52,4 +61,9 @@ public class ItemEntity {
   private Timestamp createdAt;
   @UpdateTimestamp
   private Timestamp updatedAt;
+  // Optimistic lock: an entity update matches the version it read and increments it; bulk updates increment it too
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long version;
 }
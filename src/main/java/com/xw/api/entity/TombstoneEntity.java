@@ -0,0 +1,31 @@
+package com.xw.api.entity;
+
+import java.sql.Timestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/* Record of a deleted item or category for delta sync; written with TombstoneRepository.record* */
+@Entity
+@Table(name = "tombstones")
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TombstoneEntity {
+
+  // itemId or categoryId of the deleted row
+  @Id
+  private String resourceId;
+  // ChangeFeed.ITEM or ChangeFeed.CATEGORY
+  @Column(nullable = false)
+  private String resource;
+  @Column(nullable = false)
+  private Timestamp deletedAt;
+}
@@ -2,6 +2,7 @@ package com.xw.api.entity;
 
 import java.sql.Timestamp;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -14,7 +15,9 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -29,7 +32,8 @@ import lombok.NoArgsConstructor;
 public class UserEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+  @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
   private Long id;
   @Column(unique = true, nullable = false)
   private String userId;
@@ -45,5 +49,18 @@ public class UserEntity {
   private Timestamp createdAt;
   @UpdateTimestamp
   private Timestamp updatedAt;
+  // Logins are not edits: only written by their own UPDATEs (UserRepository.markFirstLogin, LastLoginBuffer),
+  // so saving a loaded user neither bumps the version nor writes back a login time read before a newer login
+  @Column(updatable = false)
   private Timestamp lastLoginAt;
+  // Tokens carry the epoch they were issued under; bumping it revokes every outstanding token of the user
+  @Builder.Default
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long tokenEpoch = 0L;
+  // Optimistic lock, as on ItemEntity
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long version;
 }
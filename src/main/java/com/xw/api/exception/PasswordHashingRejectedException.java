@@ -0,0 +1,11 @@
+package com.xw.api.exception;
+
+public class PasswordHashingRejectedException extends RuntimeException {
+  public PasswordHashingRejectedException(String message) {
+    super(message);
+  }
+
+  public PasswordHashingRejectedException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
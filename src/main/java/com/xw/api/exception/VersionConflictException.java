@@ -0,0 +1,20 @@
+package com.xw.api.exception;
+
+/* An update lost the race for a row version: 412 when the client named it in If-Match, 409 otherwise */
+public class VersionConflictException extends RuntimeException {
+  private final boolean conditional;
+
+  public VersionConflictException(String message, boolean conditional) {
+    super(message);
+    this.conditional = conditional;
+  }
+
+  public VersionConflictException(String message, boolean conditional, Throwable cause) {
+    super(message, cause);
+    this.conditional = conditional;
+  }
+
+  public boolean isConditional() {
+    return conditional;
+  }
+}
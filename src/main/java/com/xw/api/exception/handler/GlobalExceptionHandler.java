@@ -1,11 +1,14 @@
 package com.xw.api.exception.handler;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import com.xw.api.exception.AuthenticationException;
+import com.xw.api.exception.PasswordHashingRejectedException;
+import com.xw.api.exception.VersionConflictException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -14,4 +17,17 @@ public class GlobalExceptionHandler {
   public ResponseEntity<String> handleAuthenticationException(AuthenticationException exception) {
     return new ResponseEntity<>(exception.getMessage(), HttpStatus.UNAUTHORIZED);
   }
+
+  @ExceptionHandler(PasswordHashingRejectedException.class)
+  public ResponseEntity<String> handlePasswordHashingRejectedException(PasswordHashingRejectedException exception) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(exception.getMessage());
+  }
+
+  @ExceptionHandler(VersionConflictException.class)
+  public ResponseEntity<String> handleVersionConflictException(VersionConflictException exception) {
+    HttpStatus status = exception.isConditional() ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+    return new ResponseEntity<>(exception.getMessage(), status);
+  }
 }
@@ -0,0 +1,149 @@
+package com.xw.api.filter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Caps how many requests of each endpoint group (public reads, admin writes, auth) run at once, so one
+ * slow group cannot hold every connection of the shared Hikari pool. A request that cannot get a permit
+ * within the group's max wait is answered with 503 and Retry-After before any security or database work.
+ * Disabled unless {@code app.bulkhead.enabled=true}; mostly useful together with virtual threads, where
+ * the request thread count no longer limits concurrency.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class BulkheadFilter extends OncePerRequestFilter {
+
+  enum Group {
+    PUBLIC_READS("public-reads"),
+    ADMIN_WRITES("admin-writes"),
+    AUTH("auth");
+
+    private final String tag;
+
+    Group(String tag) {
+      this.tag = tag;
+    }
+  }
+
+  private record Bulkhead(Semaphore permits, long maxWaitNanos, Counter rejected) {
+  }
+
+  private final boolean enabled;
+  private final Bulkhead publicReads;
+  private final Bulkhead adminWrites;
+  private final Bulkhead auth;
+
+  public BulkheadFilter(
+      MeterRegistry meterRegistry,
+      @Value("${app.bulkhead.enabled:false}") boolean enabled,
+      @Value("${app.bulkhead.public-reads.max-concurrent:8}") int publicReadsMaxConcurrent,
+      @Value("${app.bulkhead.public-reads.max-wait:PT0.1S}") Duration publicReadsMaxWait,
+      @Value("${app.bulkhead.admin-writes.max-concurrent:4}") int adminWritesMaxConcurrent,
+      @Value("${app.bulkhead.admin-writes.max-wait:PT0.5S}") Duration adminWritesMaxWait,
+      @Value("${app.bulkhead.auth.max-concurrent:4}") int authMaxConcurrent,
+      @Value("${app.bulkhead.auth.max-wait:PT0.1S}") Duration authMaxWait
+  ) {
+    this.enabled = enabled;
+    this.publicReads = bulkhead(meterRegistry, Group.PUBLIC_READS, publicReadsMaxConcurrent, publicReadsMaxWait);
+    this.adminWrites = bulkhead(meterRegistry, Group.ADMIN_WRITES, adminWritesMaxConcurrent, adminWritesMaxWait);
+    this.auth = bulkhead(meterRegistry, Group.AUTH, authMaxConcurrent, authMaxWait);
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain
+  ) throws IOException, ServletException {
+    Group group = classify(request);
+    Bulkhead bulkhead = group == null ? null : bulkheadFor(group);
+    if (bulkhead == null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    boolean acquired;
+    try {
+      acquired = bulkhead.permits().tryAcquire(bulkhead.maxWaitNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      bulkhead.rejected().increment();
+      response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+      response.setContentType("text/plain");
+      response.getWriter().write("Too many concurrent " + group.tag + " requests, retry shortly");
+      return;
+    }
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      bulkhead.permits().release();
+    }
+  }
+
+  @Override
+  protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+    return !enabled || "OPTIONS".equalsIgnoreCase(request.getMethod());
+  }
+
+  // Groups are matched on the path inside the application, so a servlet context path does not matter
+  static Group classify(HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    String method = request.getMethod();
+    if (path.equals("/login") || path.equals("/verify-credentials") || path.equals("/check-login")) {
+      return Group.AUTH;
+    }
+    if (path.startsWith("/admin/")) {
+      return "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method) ? null : Group.ADMIN_WRITES;
+    }
+    if ((path.equals("/items") || path.startsWith("/items/") || path.startsWith("/categories/"))
+        && ("GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method))) {
+      return Group.PUBLIC_READS;
+    }
+    return null;
+  }
+
+  private Bulkhead bulkheadFor(Group group) {
+    return switch (group) {
+      case PUBLIC_READS -> publicReads;
+      case ADMIN_WRITES -> adminWrites;
+      case AUTH -> auth;
+    };
+  }
+
+  private static Bulkhead bulkhead(MeterRegistry meterRegistry, Group group, int maxConcurrent, Duration maxWait) {
+    Semaphore permits = new Semaphore(maxConcurrent);
+    Gauge.builder("http.bulkhead.available", permits, Semaphore::availablePermits)
+        .description("Free request permits in the endpoint group's bulkhead")
+        .tag("group", group.tag)
+        .register(meterRegistry);
+    Counter rejected = Counter.builder("http.bulkhead.rejected")
+        .description("Requests answered with 503 because the endpoint group's bulkhead was full")
+        .tag("group", group.tag)
+        .register(meterRegistry);
+    return new Bulkhead(permits, maxWait.toNanos(), rejected);
+  }
+}
@@ -9,23 +9,26 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.xw.api.service.TokenEpochRegistry;
 import com.xw.api.utils.JwtUtils;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 public class JwtRequestFilter extends OncePerRequestFilter {
 
-  private final UserDetailsService userDetailsService;
   private final JwtUtils jwtUtils;
+  private final TokenEpochRegistry tokenEpochRegistry;
 
   @Override
   protected void doFilterInternal(
@@ -47,18 +50,21 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         }
       }
       if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-        String email = jwtUtils.extractUsername(jwt);
+        // One signature check per token; the principal is rebuilt from its claims without a user lookup
+        JwtUtils.VerifiedToken token = jwtUtils.verify(jwt);
+        String email = token.subject();
+        String userId = token.userId();
+        String role = token.role();
+        Long tokenEpoch = token.tokenEpoch();
 
-        if (email != null) {
-          UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
-          boolean valid = jwtUtils.validateToken(jwt, userDetails);
-          if (valid) {
-            UsernamePasswordAuthenticationToken auth =
-                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(auth);
-          }
+        // Tokens without these claims predate stateless tokens and must be re-issued by logging in again
+        if (email != null && userId != null && role != null && tokenEpoch != null
+            && tokenEpochRegistry.isCurrent(userId, tokenEpoch)) {
+          UserDetails userDetails = new User(email, "", List.of(new SimpleGrantedAuthority(role)));
+          UsernamePasswordAuthenticationToken auth =
+              new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+          auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+          SecurityContextHolder.getContext().setAuthentication(auth);
         }
       }
     } catch (Exception ignored) {
@@ -87,7 +93,8 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         || path.startsWith("/auth/refresh")
         || path.startsWith("/public/")
         || path.startsWith("/assets/")
-        || path.startsWith("/health");
+        || path.startsWith("/health")
+        || path.startsWith("/actuator/prometheus");
   }
 }
 
@@ -0,0 +1,60 @@
+package com.xw.api.filter;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.xw.api.utils.RequestPersistenceCounter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Records how many JDBC statements and entity loads each request caused, tagged like http.server.requests
+ * with the method and the matched URI pattern, so N+1 regressions show up per endpoint.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@RequiredArgsConstructor
+public class PersistenceMetricsFilter extends OncePerRequestFilter {
+
+  private final MeterRegistry meterRegistry;
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain
+  ) throws IOException, ServletException {
+    RequestPersistenceCounter.Counts counts = RequestPersistenceCounter.start();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      RequestPersistenceCounter.stop();
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+      summary("hibernate.request.statements", "JDBC statements prepared while serving a request", request, uri)
+          .record(counts.statements());
+      summary("hibernate.request.entity.loads", "Entities loaded while serving a request", request, uri)
+          .record(counts.entityLoads());
+    }
+  }
+
+  private DistributionSummary summary(String name, String description, HttpServletRequest request, String uri) {
+    return DistributionSummary.builder(name)
+        .description(description)
+        .tag("method", request.getMethod())
+        .tag("uri", uri)
+        .register(meterRegistry);
+  }
+}
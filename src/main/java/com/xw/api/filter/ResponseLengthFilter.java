@@ -0,0 +1,114 @@
+package com.xw.api.filter;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Lets server.compression.min-response-size apply to JSON, CBOR and Smile bodies. The message converters flush
+ * after writing, which commits the response before Tomcat knows its length, and Tomcat compresses every response
+ * of unknown length. Holding back those flushes leaves a body that fits the response buffer uncommitted until
+ * the request completes, so it goes out with a Content-Length; larger bodies still stream as the buffer fills.
+ * Streaming types such as NDJSON exports and event streams keep their flushes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 30)
+public class ResponseLengthFilter extends OncePerRequestFilter {
+
+  private static final Set<String> BUFFERED_SUBTYPES = Set.of("json", "cbor", "x-jackson-smile");
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain
+  ) throws IOException, ServletException {
+    filterChain.doFilter(request, new HttpServletResponseWrapper(response) {
+      private ServletOutputStream outputStream;
+
+      @Override
+      public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+          outputStream = new FlushHoldingOutputStream(super.getOutputStream(), this);
+        }
+        return outputStream;
+      }
+
+      @Override
+      public void flushBuffer() throws IOException {
+        if (!holdsFlush(getContentType())) {
+          super.flushBuffer();
+        }
+      }
+    });
+  }
+
+  private static boolean holdsFlush(String contentType) {
+    if (contentType == null) {
+      return false;
+    }
+    try {
+      MediaType mediaType = MediaType.parseMediaType(contentType);
+      return "application".equals(mediaType.getType()) && BUFFERED_SUBTYPES.contains(mediaType.getSubtype());
+    } catch (InvalidMediaTypeException e) {
+      return false;
+    }
+  }
+
+  private static final class FlushHoldingOutputStream extends ServletOutputStream {
+    private final ServletOutputStream delegate;
+    private final HttpServletResponse response;
+
+    FlushHoldingOutputStream(ServletOutputStream delegate, HttpServletResponse response) {
+      this.delegate = delegate;
+      this.response = response;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      delegate.write(b);
+    }
+
+    @Override
+    public void write(@NonNull byte[] b, int off, int len) throws IOException {
+      delegate.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (!holdsFlush(response.getContentType())) {
+        delegate.flush();
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      delegate.close();
+    }
+
+    @Override
+    public boolean isReady() {
+      return delegate.isReady();
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+      delegate.setWriteListener(writeListener);
+    }
+  }
+}
@@ -1,16 +1,89 @@
 package com.xw.api.repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.xw.api.dto.CategoryResponse;
 import com.xw.api.entity.CategoryEntity;
+import com.xw.api.repository.projection.EntityVersionRow;
+import com.xw.api.repository.projection.VersionRow;
+
+import jakarta.persistence.LockModeType;
 
 public interface CategoryRepository extends JpaRepository<CategoryEntity, Long> {
 
     @Query("SELECT c FROM CategoryEntity c WHERE c.categoryId = :categoryId")
     Optional<CategoryEntity> findByCategoryId(@Param("categoryId") String categoryId);
 
+    @Query("SELECT c FROM CategoryEntity c WHERE c.categoryId IN :categoryIds")
+    List<CategoryEntity> findAllByCategoryIdIn(@Param("categoryIds") Collection<String> categoryIds);
+
+    // Change markers for conditional GET, answered without loading any entity
+    @Query("SELECT new com.xw.api.repository.projection.VersionRow(MAX(c.updatedAt), COUNT(c)) FROM CategoryEntity c")
+    VersionRow findVersion();
+
+    // The maintained item count changes whenever an item joins or leaves the category
+    @Query("SELECT new com.xw.api.repository.projection.EntityVersionRow(c.version, CAST(c.itemsCount AS Long), c.updatedAt) "
+        + "FROM CategoryEntity c WHERE c.categoryId = :categoryId")
+    Optional<EntityVersionRow> findVersionByCategoryId(@Param("categoryId") String categoryId);
+
+    // Item counts come from the maintained itemsCount column, so no join or COUNT is needed
+    @Query("SELECT new com.xw.api.dto.CategoryResponse(c.categoryId, c.name, c.description, c.bgColor, c.createdAt, c.updatedAt, c.itemsCount) "
+        + "FROM CategoryEntity c")
+    List<CategoryResponse> findAllWithItemsCount();
+
+    @Query("SELECT new com.xw.api.dto.CategoryResponse(c.categoryId, c.name, c.description, c.bgColor, c.createdAt, c.updatedAt, c.itemsCount) "
+        + "FROM CategoryEntity c WHERE c.categoryId = :categoryId")
+    Optional<CategoryResponse> findWithItemsCountByCategoryId(@Param("categoryId") String categoryId);
+
+    @Query("SELECT c.itemsCount FROM CategoryEntity c WHERE c.categoryId = :categoryId")
+    Optional<Integer> findItemsCountByCategoryId(@Param("categoryId") String categoryId);
+
+    // Relative change applied by the database, so concurrent item writes never overwrite each other's counts.
+    // updatedAt moves with the count so delta syncs pick the category up; the version does not (see CategoryEntity)
+    default int adjustItemsCount(Long id, int delta) {
+        return adjustItemsCount(id, delta, new Timestamp(System.currentTimeMillis()));
+    }
+
+    @Modifying
+    @Query("UPDATE CategoryEntity c SET c.itemsCount = c.itemsCount + :delta, c.updatedAt = :now WHERE c.id = :id")
+    int adjustItemsCount(@Param("id") Long id, @Param("delta") int delta, @Param("now") Timestamp now);
+
+    default int setItemsCount(Long id, Integer itemsCount) {
+        return setItemsCount(id, itemsCount, new Timestamp(System.currentTimeMillis()));
+    }
+
+    @Modifying
+    @Query("UPDATE CategoryEntity c SET c.itemsCount = :itemsCount, c.updatedAt = :now WHERE c.id = :id")
+    int setItemsCount(@Param("id") Long id, @Param("itemsCount") Integer itemsCount, @Param("now") Timestamp now);
+
+    @Query("SELECT c.id FROM CategoryEntity c")
+    List<Long> findAllIds();
+
+    // Row lock held until commit; item writes adjusting this category's count wait for it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CategoryEntity c WHERE c.id = :id")
+    Optional<CategoryEntity> findForUpdateById(@Param("id") Long id);
+
+    // Delta sync: keyset pages on (updatedAt, id) within (since, until]
+    @Query("SELECT c FROM CategoryEntity c WHERE c.updatedAt > :since AND c.updatedAt <= :until "
+        + "ORDER BY c.updatedAt ASC, c.id ASC")
+    List<CategoryEntity> findFirstChanges(@Param("since") Timestamp since, @Param("until") Timestamp until,
+        Limit limit);
+
+    @Query("SELECT c FROM CategoryEntity c "
+        + "WHERE (c.updatedAt > :updatedAt OR (c.updatedAt = :updatedAt AND c.id > :id)) AND c.updatedAt <= :until "
+        + "ORDER BY c.updatedAt ASC, c.id ASC")
+    List<CategoryEntity> findChangesAfter(@Param("updatedAt") Timestamp updatedAt, @Param("id") Long id,
+        @Param("until") Timestamp until, Limit limit);
+
 }
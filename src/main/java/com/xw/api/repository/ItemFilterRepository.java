@@ -0,0 +1,23 @@
+package com.xw.api.repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+
+import com.xw.api.common.ItemSortField;
+import com.xw.api.dto.ItemFilter;
+import com.xw.api.repository.projection.ItemRow;
+
+/* Criteria-built item queries filtered by ItemFilter; every filter and sort key has a matching index (V3 migration) */
+public interface ItemFilterRepository {
+
+  // Keyset position of the last row of the previous page: its sort key value (may be null for price) and id
+  record After(Object value, Long id) {
+  }
+
+  List<ItemRow> findFiltered(ItemFilter filter, ItemSortField sort, boolean descending, After after, int limit);
+
+  // One UPDATE over every priced item matching the filter: price + amount, or price scaled by percent (rounded to cents).
+  // Items whose new price would be negative are left unchanged and not counted
+  int changePrices(ItemFilter filter, BigDecimal amount, BigDecimal percent, Timestamp now);
+}
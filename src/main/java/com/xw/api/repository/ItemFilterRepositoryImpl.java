@@ -0,0 +1,165 @@
+package com.xw.api.repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+import com.xw.api.common.ItemSortField;
+import com.xw.api.dto.ItemFilter;
+import com.xw.api.entity.CategoryEntity;
+import com.xw.api.entity.ItemEntity;
+import com.xw.api.repository.projection.ItemRow;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ItemFilterRepositoryImpl implements ItemFilterRepository {
+
+  private static final char LIKE_ESCAPE = '\\';
+
+  private final EntityManager entityManager;
+
+  @Override
+  public List<ItemRow> findFiltered(ItemFilter filter, ItemSortField sort, boolean descending, After after, int limit) {
+    HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+    CriteriaQuery<ItemRow> query = cb.createQuery(ItemRow.class);
+    Root<ItemEntity> item = query.from(ItemEntity.class);
+    Join<ItemEntity, CategoryEntity> category = item.join("category");
+    query.select(cb.construct(ItemRow.class,
+        item.get("id"), item.get("itemId"), item.get("name"), item.get("description"), item.get("price"),
+        category.get("categoryId"), category.get("name"), item.get("createdAt"), item.get("updatedAt")));
+
+    List<Predicate> predicates = new ArrayList<>();
+    if (filter.getCategoryId() != null) {
+      predicates.add(cb.equal(category.get("categoryId"), filter.getCategoryId()));
+    }
+    addFilterPredicates(cb, item, filter, predicates);
+
+    Path<Comparable<Object>> key = item.get(sort.attribute());
+    Path<Long> id = item.get("id");
+    if (after != null) {
+      predicates.add(afterPosition(cb, sort, descending, key, id, after));
+    }
+    query.where(predicates.toArray(Predicate[]::new));
+
+    // Nulls are ordered explicitly (high, as PostgreSQL's default) so the keyset predicate stays portable
+    List<Order> orders = new ArrayList<>();
+    orders.add(descending ? cb.desc(key, true) : cb.asc(key, false));
+    if (!sort.unique()) {
+      orders.add(descending ? cb.desc(id) : cb.asc(id));
+    }
+    query.orderBy(orders);
+
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+
+  @Override
+  public int changePrices(ItemFilter filter, BigDecimal amount, BigDecimal percent, Timestamp now) {
+    HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+    CriteriaUpdate<ItemEntity> update = cb.createCriteriaUpdate(ItemEntity.class);
+    Root<ItemEntity> item = update.from(ItemEntity.class);
+    Path<BigDecimal> price = item.get("price");
+    Expression<BigDecimal> newPrice = amount != null
+        ? cb.sum(price, amount)
+        : cb.round(scaledBy(cb, price, percent), 2);
+    update.set(price, newPrice);
+    update.set(item.<Timestamp>get("updatedAt"), now);
+    // Bulk updates bypass the entity's optimistic lock, so they have to move its version themselves
+    update.set(item.<Long>get("version"), cb.sum(item.<Long>get("version"), 1L));
+
+    List<Predicate> predicates = new ArrayList<>();
+    predicates.add(cb.isNotNull(price));
+    // Rows the change would take below zero keep their price
+    predicates.add(cb.greaterThanOrEqualTo(newPrice, BigDecimal.ZERO));
+    if (filter.getCategoryId() != null) {
+      // No joins in UPDATE: match the foreign key against the category's id
+      Subquery<Long> categoryKey = update.subquery(Long.class);
+      Root<CategoryEntity> category = categoryKey.from(CategoryEntity.class);
+      categoryKey.select(category.get("id")).where(cb.equal(category.get("categoryId"), filter.getCategoryId()));
+      predicates.add(item.get("category").get("id").in(categoryKey));
+    }
+    addFilterPredicates(cb, item, filter, predicates);
+    update.where(predicates.toArray(Predicate[]::new));
+    return entityManager.createQuery(update).executeUpdate();
+  }
+
+  // price * (100 + percent) / 100 as a ratio of integers: bound parameters take the type of the price column,
+  // so a fractional factor such as 1.125 would be cut to its scale of 2 before the multiplication
+  @SuppressWarnings("unchecked")
+  private static Expression<BigDecimal> scaledBy(HibernateCriteriaBuilder cb, Path<BigDecimal> price, BigDecimal percent) {
+    BigDecimal exact = percent.stripTrailingZeros();
+    int digits = Math.max(exact.scale(), 0);
+    BigDecimal denominator = BigDecimal.valueOf(100).movePointRight(digits);
+    BigDecimal numerator = denominator.add(exact.movePointRight(digits));
+    return (Expression<BigDecimal>) (Expression<?>) cb.quot(cb.prod(price, numerator), denominator);
+  }
+
+  // Every ItemFilter condition except categoryId, which listings match through their join and updates by key
+  private static void addFilterPredicates(HibernateCriteriaBuilder cb, Root<ItemEntity> item, ItemFilter filter,
+      List<Predicate> predicates) {
+    if (filter.getMinPrice() != null) {
+      predicates.add(cb.greaterThanOrEqualTo(item.get("price"), filter.getMinPrice()));
+    }
+    if (filter.getMaxPrice() != null) {
+      predicates.add(cb.lessThanOrEqualTo(item.get("price"), filter.getMaxPrice()));
+    }
+    if (filter.getNamePrefix() != null && !filter.getNamePrefix().isEmpty()) {
+      predicates.add(cb.like(item.get("name"), escapeLike(filter.getNamePrefix()) + "%", LIKE_ESCAPE));
+    }
+    if (filter.getCreatedFrom() != null) {
+      predicates.add(cb.greaterThanOrEqualTo(item.get("createdAt"), Timestamp.from(filter.getCreatedFrom())));
+    }
+    if (filter.getCreatedTo() != null) {
+      predicates.add(cb.lessThan(item.get("createdAt"), Timestamp.from(filter.getCreatedTo())));
+    }
+    if (filter.getUpdatedFrom() != null) {
+      predicates.add(cb.greaterThanOrEqualTo(item.get("updatedAt"), Timestamp.from(filter.getUpdatedFrom())));
+    }
+    if (filter.getUpdatedTo() != null) {
+      predicates.add(cb.lessThan(item.get("updatedAt"), Timestamp.from(filter.getUpdatedTo())));
+    }
+  }
+
+  // Rows strictly after the cursor in (key, id) order, with null keys sorting after every value
+  private static Predicate afterPosition(HibernateCriteriaBuilder cb, ItemSortField sort, boolean descending,
+      Path<Comparable<Object>> key, Path<Long> id, After after) {
+    if (sort.unique()) {
+      return beyond(cb, key, cast(after.value()), descending);
+    }
+    Predicate tieBreak = beyond(cb, id, after.id(), descending);
+    if (after.value() == null) {
+      Predicate inNullRun = cb.and(cb.isNull(key), tieBreak);
+      return descending ? cb.or(inNullRun, cb.isNotNull(key)) : inNullRun;
+    }
+    Comparable<Object> value = cast(after.value());
+    Predicate next = cb.or(beyond(cb, key, value, descending), cb.and(cb.equal(key, value), tieBreak));
+    return sort.nullable() && !descending ? cb.or(next, cb.isNull(key)) : next;
+  }
+
+  private static <T extends Comparable<? super T>> Predicate beyond(HibernateCriteriaBuilder cb,
+      Expression<? extends T> expression, T value, boolean descending) {
+    return descending ? cb.lessThan(expression, value) : cb.greaterThan(expression, value);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Comparable<Object> cast(Object value) {
+    return (Comparable<Object>) value;
+  }
+
+  private static String escapeLike(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
@@ -1,21 +1,119 @@
 package com.xw.api.repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import com.xw.api.dto.ItemResponse;
+import com.xw.api.entity.CategoryEntity;
 import com.xw.api.entity.ItemEntity;
+import com.xw.api.repository.projection.ItemKeyRow;
+import com.xw.api.repository.projection.EntityVersionRow;
+import com.xw.api.repository.projection.ItemRow;
+import com.xw.api.repository.projection.ItemText;
+import com.xw.api.repository.projection.VersionRow;
+
+import jakarta.persistence.QueryHint;
+
+public interface ItemRepository extends JpaRepository<ItemEntity, Long>, ItemFilterRepository {
 
-public interface ItemRepository extends JpaRepository<ItemEntity, Long> {
+  String ITEM_ROW_COLUMNS = "i.id, i.itemId, i.name, i.description, i.price, c.categoryId, c.name, i.createdAt, i.updatedAt";
 
   @Query("SELECT i FROM ItemEntity i WHERE i.itemId = :itemId")
   Optional<ItemEntity> findByItemId(String itemId);
-  
-  // Find items by (true) category ID (type Long) instead of categoryId (type String)
-  @Query("SELECT i FROM ItemEntity i WHERE i.category.id = :id")
-  List<ItemEntity> findAllByCategoryId(Long id);
+
+  @Query("SELECT new com.xw.api.dto.ItemResponse(i.itemId, i.name, i.description, i.price, c.categoryId, c.name, i.createdAt, i.updatedAt) "
+      + "FROM ItemEntity i JOIN i.category c WHERE i.itemId = :itemId")
+  Optional<ItemResponse> findResponseByItemId(String itemId);
+
+  @Query("SELECT new com.xw.api.repository.projection.ItemRow(" + ITEM_ROW_COLUMNS + ") "
+      + "FROM ItemEntity i JOIN i.category c WHERE i.id IN :ids")
+  List<ItemRow> findRowsByIdIn(Collection<Long> ids);
+
+  // Change markers for conditional GET; an item's representation also changes when its category is renamed
+  @Query("SELECT new com.xw.api.repository.projection.VersionRow(MAX(i.updatedAt), COUNT(i)) FROM ItemEntity i")
+  VersionRow findVersion();
+
+  @Query("SELECT new com.xw.api.repository.projection.EntityVersionRow(i.version, c.version, "
+      + "CASE WHEN i.updatedAt > c.updatedAt THEN i.updatedAt ELSE c.updatedAt END) "
+      + "FROM ItemEntity i JOIN i.category c WHERE i.itemId = :itemId")
+  Optional<EntityVersionRow> findVersionByItemId(String itemId);
+
+  // Keyset pagination on (createdAt, id): the first page, then every page after a cursor position.
+  // Rows are projected straight from the item/category join, so no entities are hydrated for reads.
+  @Query("SELECT new com.xw.api.repository.projection.ItemRow(" + ITEM_ROW_COLUMNS + ") "
+      + "FROM ItemEntity i JOIN i.category c ORDER BY i.createdAt ASC, i.id ASC")
+  List<ItemRow> findFirstPage(Limit limit);
+
+  @Query("SELECT new com.xw.api.repository.projection.ItemRow(" + ITEM_ROW_COLUMNS + ") "
+      + "FROM ItemEntity i JOIN i.category c "
+      + "WHERE i.createdAt > :createdAt OR (i.createdAt = :createdAt AND i.id > :id) "
+      + "ORDER BY i.createdAt ASC, i.id ASC")
+  List<ItemRow> findPageAfter(Timestamp createdAt, Long id, Limit limit);
+
+  // Same keyset pages restricted to a (true) category ID (type Long) instead of categoryId (type String)
+  @Query("SELECT new com.xw.api.repository.projection.ItemRow(" + ITEM_ROW_COLUMNS + ") "
+      + "FROM ItemEntity i JOIN i.category c WHERE c.id = :categoryId ORDER BY i.createdAt ASC, i.id ASC")
+  List<ItemRow> findFirstPageByCategoryId(Long categoryId, Limit limit);
+
+  @Query("SELECT new com.xw.api.repository.projection.ItemRow(" + ITEM_ROW_COLUMNS + ") "
+      + "FROM ItemEntity i JOIN i.category c WHERE c.id = :categoryId "
+      + "AND (i.createdAt > :createdAt OR (i.createdAt = :createdAt AND i.id > :id)) "
+      + "ORDER BY i.createdAt ASC, i.id ASC")
+  List<ItemRow> findPageAfterByCategoryId(Long categoryId, Timestamp createdAt, Long id, Limit limit);
+
+  // Delta sync: keyset pages on (updatedAt, id) within (since, until]
+  @Query("SELECT new com.xw.api.repository.projection.ItemRow(" + ITEM_ROW_COLUMNS + ") "
+      + "FROM ItemEntity i JOIN i.category c WHERE i.updatedAt > :since AND i.updatedAt <= :until "
+      + "ORDER BY i.updatedAt ASC, i.id ASC")
+  List<ItemRow> findFirstChanges(Timestamp since, Timestamp until, Limit limit);
+
+  @Query("SELECT new com.xw.api.repository.projection.ItemRow(" + ITEM_ROW_COLUMNS + ") "
+      + "FROM ItemEntity i JOIN i.category c "
+      + "WHERE (i.updatedAt > :updatedAt OR (i.updatedAt = :updatedAt AND i.id > :id)) AND i.updatedAt <= :until "
+      + "ORDER BY i.updatedAt ASC, i.id ASC")
+  List<ItemRow> findChangesAfter(Timestamp updatedAt, Long id, Timestamp until, Limit limit);
+
+  @Query("SELECT i.name FROM ItemEntity i WHERE i.name IN :names")
+  List<String> findExistingNames(Collection<String> names);
+
+  // Server-side cursor over the whole catalog; rows are fetched from the database in chunks as the stream advances
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT i FROM ItemEntity i JOIN FETCH i.category ORDER BY i.createdAt ASC, i.id ASC")
+  Stream<ItemEntity> streamAll();
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("SELECT new com.xw.api.repository.projection.ItemText(i.id, i.name, i.description) FROM ItemEntity i")
+  Stream<ItemText> streamAllText();
+
+  // Set-based statements for the bulk endpoints; they bypass @UpdateTimestamp and @Version, so updatedAt is passed
+  // in and the version is incremented by the statement
+  @Modifying
+  @Query("UPDATE ItemEntity i SET i.category = :target, i.updatedAt = :now, i.version = i.version + 1 "
+      + "WHERE i.category.id = :sourceId")
+  int moveAllToCategory(Long sourceId, CategoryEntity target, Timestamp now);
+
+  @Query("SELECT new com.xw.api.repository.projection.ItemKeyRow(i.id, i.itemId, i.category.id) "
+      + "FROM ItemEntity i WHERE i.itemId IN :itemIds")
+  List<ItemKeyRow> findKeysByItemIdIn(Collection<String> itemIds);
+
+  // Scoped to one category so the affected count is exactly that category's items count change
+  @Modifying
+  @Query("DELETE FROM ItemEntity i WHERE i.id IN :ids AND i.category.id = :categoryId")
+  int deleteAllByIdInAndCategoryId(Collection<Long> ids, Long categoryId);
 
   // Count items by (true) category ID (type Long) instead of categoryId (type String)
   @Query("SELECT COUNT(i) FROM ItemEntity i WHERE i.category.id = :id")
@@ -0,0 +1,41 @@
+package com.xw.api.repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.xw.api.dto.TombstoneResponse;
+import com.xw.api.entity.TombstoneEntity;
+
+public interface TombstoneRepository extends JpaRepository<TombstoneEntity, String> {
+
+  // Plain inserts: save() would first select the row because the id is assigned
+  @Modifying
+  @Query("INSERT INTO TombstoneEntity (resourceId, resource, deletedAt) VALUES (:resourceId, :resource, :deletedAt)")
+  int record(String resourceId, String resource, Timestamp deletedAt);
+
+  // One statement for a set of items, before they are deleted
+  @Modifying
+  @Query("INSERT INTO TombstoneEntity (resourceId, resource, deletedAt) "
+      + "SELECT i.itemId, :resource, :deletedAt FROM ItemEntity i WHERE i.id IN :ids")
+  int recordAll(Collection<Long> ids, String resource, Timestamp deletedAt);
+
+  // Keyset pages on (deletedAt, resourceId) within (since, until]
+  @Query("SELECT new com.xw.api.dto.TombstoneResponse(t.resource, t.resourceId, t.deletedAt) FROM TombstoneEntity t "
+      + "WHERE t.deletedAt > :since AND t.deletedAt <= :until ORDER BY t.deletedAt ASC, t.resourceId ASC")
+  List<TombstoneResponse> findFirstChanges(Timestamp since, Timestamp until, Limit limit);
+
+  @Query("SELECT new com.xw.api.dto.TombstoneResponse(t.resource, t.resourceId, t.deletedAt) FROM TombstoneEntity t "
+      + "WHERE (t.deletedAt > :deletedAt OR (t.deletedAt = :deletedAt AND t.resourceId > :resourceId)) "
+      + "AND t.deletedAt <= :until ORDER BY t.deletedAt ASC, t.resourceId ASC")
+  List<TombstoneResponse> findChangesAfter(Timestamp deletedAt, String resourceId, Timestamp until, Limit limit);
+
+  @Modifying
+  @Query("DELETE FROM TombstoneEntity t WHERE t.deletedAt < :horizon")
+  int deleteAllDeletedBefore(Timestamp horizon);
+}
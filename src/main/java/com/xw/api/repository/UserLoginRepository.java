@@ -0,0 +1,11 @@
+package com.xw.api.repository;
+
+import java.sql.Timestamp;
+import java.util.Map;
+
+/* Login timestamp writes that go through JDBC batching rather than one JPQL statement per user */
+public interface UserLoginRepository {
+
+  // One UPDATE per user, sent as a single JDBC batch; never moves a newer value back and leaves updatedAt alone
+  void updateLastLoginAt(Map<String, Timestamp> loginAtByUserId);
+}
@@ -0,0 +1,26 @@
+package com.xw.api.repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class UserLoginRepositoryImpl implements UserLoginRepository {
+
+  private static final String UPDATE_LAST_LOGIN_AT =
+      "UPDATE users SET last_login_at = ? WHERE user_id = ? AND (last_login_at IS NULL OR last_login_at < ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public void updateLastLoginAt(Map<String, Timestamp> loginAtByUserId) {
+    List<Object[]> rows = loginAtByUserId.entrySet().stream()
+        .map(entry -> new Object[] { entry.getValue(), entry.getKey(), entry.getValue() })
+        .toList();
+    jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN_AT, rows);
+  }
+}
@@ -1,13 +1,19 @@
 package com.xw.api.repository;
 
+import java.sql.Timestamp;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.xw.api.entity.UserEntity;
+import com.xw.api.repository.projection.TokenEpochRow;
+import com.xw.api.repository.projection.UserTokenRow;
 
-public interface UserRepository extends JpaRepository<UserEntity, Long> {
+public interface UserRepository extends JpaRepository<UserEntity, Long>, UserLoginRepository {
 
   @Query("SELECT u FROM UserEntity u WHERE u.userEmail = :userEmail")
   Optional<UserEntity> findByUserEmail(String userEmail); 
@@ -18,8 +24,20 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
   @Query("SELECT u FROM UserEntity u WHERE u.username = :name")
   Optional<UserEntity> findByUsername(String name);
   
-  @Query("SELECT u.role FROM UserEntity u WHERE u.userEmail = :userEmail")
-  String findRoleByUserEmail(String userEmail);
+  @Query("SELECT new com.xw.api.repository.projection.UserTokenRow(u.userId, u.userEmail, u.role, u.tokenEpoch, u.lastLoginAt) FROM UserEntity u WHERE u.userEmail = :userEmail")
+  Optional<UserTokenRow> findTokenRowByUserEmail(String userEmail);
+
+  @Query("SELECT new com.xw.api.repository.projection.TokenEpochRow(u.userId, u.tokenEpoch) FROM UserEntity u")
+  List<TokenEpochRow> findAllTokenEpochs();
+
+  @Query("SELECT u.tokenEpoch FROM UserEntity u WHERE u.userId = :userId")
+  Optional<Long> findTokenEpochByUserId(String userId);
+
+  // Sets the first login time only while it is still unset; returns 1 exactly once per user
+  @Modifying
+  @Transactional
+  @Query("UPDATE UserEntity u SET u.lastLoginAt = :now WHERE u.userEmail = :userEmail AND u.lastLoginAt IS NULL")
+  int markFirstLogin(String userEmail, Timestamp now);
 
   @Query("SELECT COUNT(u) > 0 FROM UserEntity u WHERE u.role = 'ROLE_ADMIN'")
   boolean existsAdminUser();
@@ -0,0 +1,10 @@
+package com.xw.api.repository.projection;
+
+import java.sql.Timestamp;
+
+/*
+ * Change marker for a single row: its @Version, plus a qualifier for anything else its representation shows that
+ * changes without the version (null when there is nothing), and the newest modification time involved
+ */
+public record EntityVersionRow(Long version, Long qualifier, Timestamp lastModified) {
+}
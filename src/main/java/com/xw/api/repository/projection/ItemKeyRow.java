@@ -0,0 +1,5 @@
+package com.xw.api.repository.projection;
+
+/* Keys of an item needed to delete it and keep its category's items count in step */
+public record ItemKeyRow(Long id, String itemId, Long categoryId) {
+}
@@ -0,0 +1,32 @@
+package com.xw.api.repository.projection;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+import com.xw.api.dto.ItemResponse;
+
+/* Flat read model for item listings: the ItemResponse columns plus the surrogate id needed for keyset cursors */
+public record ItemRow(
+    Long id,
+    String itemId,
+    String name,
+    String description,
+    BigDecimal price,
+    String categoryId,
+    String categoryName,
+    Timestamp createdAt,
+    Timestamp updatedAt) {
+
+  public ItemResponse toResponse() {
+    return ItemResponse.builder()
+        .itemId(itemId)
+        .name(name)
+        .description(description)
+        .price(price)
+        .categoryId(categoryId)
+        .categoryName(categoryName)
+        .createdAt(createdAt)
+        .updatedAt(updatedAt)
+        .build();
+  }
+}
@@ -0,0 +1,5 @@
+package com.xw.api.repository.projection;
+
+/* The searchable text of an item, keyed by its surrogate id */
+public record ItemText(Long id, String name, String description) {
+}
@@ -0,0 +1,5 @@
+package com.xw.api.repository.projection;
+
+/* A user's public id with the epoch its tokens must carry */
+public record TokenEpochRow(String userId, Long tokenEpoch) {
+}
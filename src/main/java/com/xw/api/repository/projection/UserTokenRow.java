@@ -0,0 +1,9 @@
+package com.xw.api.repository.projection;
+
+import java.sql.Timestamp;
+
+import com.xw.api.common.UserRole;
+
+/* Everything a freshly issued token carries, plus the last login time, read in one query at login */
+public record UserTokenRow(String userId, String userEmail, UserRole role, Long tokenEpoch, Timestamp lastLoginAt) {
+}
@@ -0,0 +1,7 @@
+package com.xw.api.repository.projection;
+
+import java.sql.Timestamp;
+
+/* Cheap change marker for a resource or collection: the newest updatedAt plus a row count */
+public record VersionRow(Timestamp lastModified, Long count) {
+}
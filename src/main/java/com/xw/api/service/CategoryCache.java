@@ -0,0 +1,93 @@
+package com.xw.api.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import com.xw.api.config.CacheConfig;
+import com.xw.api.entity.CategoryEntity;
+import com.xw.api.repository.CategoryRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Read-through cache of categories by categoryId for item reads and writes.
+ * Entries are detached copies that never belong to a persistence context, so they are safe to share between
+ * requests and to use as the target of an item's category association. Never modify or save them; load a managed
+ * instance through CategoryRepository for that. They do not carry itemsCount, which changes with every item write.
+ * Category writes evict entries through evict(), after commit.
+ */
+@Service
+@RequiredArgsConstructor
+public class CategoryCache {
+
+  private final CategoryRepository categoryRepository;
+  private final CacheManager cacheManager;
+
+  @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "#categoryId", unless = "#result == null")
+  public Optional<CategoryEntity> findByCategoryId(String categoryId) {
+    return categoryRepository.findByCategoryId(categoryId).map(CategoryCache::detachedCopy);
+  }
+
+  /* Cached categories for the given ids, loading all misses with one query and caching them */
+  public List<CategoryEntity> findAllByCategoryIdIn(Collection<String> categoryIds) {
+    Cache categories = cacheManager.getCache(CacheConfig.CATEGORIES);
+    List<CategoryEntity> found = new ArrayList<>(categoryIds.size());
+    List<String> misses = new ArrayList<>();
+    for (String categoryId : categoryIds) {
+      CategoryEntity cached = categories == null ? null : categories.get(categoryId, CategoryEntity.class);
+      if (cached != null) {
+        found.add(cached);
+      } else {
+        misses.add(categoryId);
+      }
+    }
+    if (!misses.isEmpty()) {
+      for (CategoryEntity entity : categoryRepository.findAllByCategoryIdIn(misses)) {
+        CategoryEntity copy = detachedCopy(entity);
+        if (categories != null) {
+          categories.put(copy.getCategoryId(), copy);
+        }
+        found.add(copy);
+      }
+    }
+    return found;
+  }
+
+  /* Drops one category and the category list, e.g. after it was renamed or deleted */
+  public void evict(String categoryId) {
+    Cache categories = cacheManager.getCache(CacheConfig.CATEGORIES);
+    if (categories != null) {
+      categories.evict(categoryId);
+    }
+    evictList();
+  }
+
+  /* Drops the cached category list, whose item counts change with every item create, move or delete */
+  public void evictList() {
+    Cache categoryList = cacheManager.getCache(CacheConfig.CATEGORY_LIST);
+    if (categoryList != null) {
+      categoryList.clear();
+    }
+  }
+
+  private static CategoryEntity detachedCopy(CategoryEntity entity) {
+    return CategoryEntity.builder()
+        .id(entity.getId())
+        .name(entity.getName())
+        .description(entity.getDescription())
+        .categoryId(entity.getCategoryId())
+        .bgColor(entity.getBgColor())
+        .createdAt(entity.getCreatedAt())
+        .updatedAt(entity.getUpdatedAt())
+        .itemsCount(null)
+        .version(entity.getVersion())
+        .build();
+  }
+}
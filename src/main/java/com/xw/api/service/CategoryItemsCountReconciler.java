@@ -0,0 +1,65 @@
+package com.xw.api.service;
+
+import java.util.Objects;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.xw.api.repository.CategoryRepository;
+import com.xw.api.repository.ItemRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Repairs drift between CategoryEntity.itemsCount and the actual number of items, e.g. after manual SQL or
+ * for databases that predate the column. Runs at startup and then on a schedule, one short transaction per
+ * category: the category row is locked before counting, so an item write either committed before the count
+ * or waits and applies its increment on top of the repaired value.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CategoryItemsCountReconciler {
+
+  private final CategoryRepository categoryRepository;
+  private final ItemRepository itemRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final CategoryCache categoryCache;
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(
+      fixedDelayString = "${app.categories.items-count.reconcile-interval:PT1H}",
+      initialDelayString = "${app.categories.items-count.reconcile-interval:PT1H}")
+  public void scheduledReconcile() {
+    reconcile();
+  }
+
+  /* Returns the number of categories whose count had drifted */
+  public int reconcile() {
+    int repaired = 0;
+    for (Long categoryId : categoryRepository.findAllIds()) {
+      Boolean changed = transactionTemplate.execute(status -> categoryRepository.findForUpdateById(categoryId)
+          .map(category -> {
+            Integer actual = itemRepository.countByCategory(categoryId);
+            if (Objects.equals(actual, category.getItemsCount())) {
+              return false;
+            }
+            categoryRepository.setItemsCount(categoryId, actual);
+            return true;
+          })
+          .orElse(false));
+      if (Boolean.TRUE.equals(changed)) {
+        repaired++;
+      }
+    }
+    if (repaired > 0) {
+      log.warn("Repaired the items count of {} categories", repaired);
+      categoryCache.evictList();
+    }
+    return repaired;
+  }
+}
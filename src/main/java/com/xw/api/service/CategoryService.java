@@ -5,6 +5,8 @@ import java.util.Optional;
 
 import com.xw.api.dto.CategoryRequest;
 import com.xw.api.dto.CategoryResponse;
+import com.xw.api.dto.ResourceVersion;
+import com.xw.api.dto.VersionedResponse;
 
 public interface CategoryService {
 
@@ -12,10 +14,18 @@ public interface CategoryService {
 
   public List<CategoryResponse> getAllCategories();
 
+  // The category list together with the version it was read at, cached as one entry
+  public VersionedResponse<List<CategoryResponse>> getVersionedCategories();
+
   public void deleteCategory(String categoryId);
 
-  public CategoryResponse updateCategory(String categoryId, CategoryRequest request);
+  // expectedVersion from If-Match, or null for an unconditional update
+  public VersionedResponse<CategoryResponse> updateCategory(String categoryId, CategoryRequest request, Long expectedVersion);
 
   public Optional<CategoryResponse> getCategoryById(String categoryId);
 
+  public ResourceVersion getCategoriesVersion();
+
+  public Optional<ResourceVersion> getCategoryVersion(String categoryId);
+
 }
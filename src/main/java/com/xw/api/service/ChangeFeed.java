@@ -0,0 +1,273 @@
+package com.xw.api.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xw.api.common.ChangeAction;
+import com.xw.api.dto.ChangeEvent;
+import com.xw.api.utils.TransactionUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Server-Sent Events fan-out of committed item and category changes.
+ * Each change is serialized once and offered to every subscriber's bounded queue without blocking the writer;
+ * a virtual thread per busy subscriber drains its queue to the connection. A subscriber whose queue is full is
+ * disconnected and resumes through Last-Event-ID from the last few changes kept for replay. Event ids carry the
+ * process start, so an id from before a restart, or one older than the replay buffer, gets a "reset" event
+ * telling the client to reload instead.
+ */
+@Service
+@Slf4j
+public class ChangeFeed {
+
+  public static final String ITEM = "item";
+  public static final String CATEGORY = "category";
+  // Set-based changes to many items; data is the bulk request, so clients reload what it matched
+  public static final String ITEMS = "items";
+
+  static final String RESET_EVENT = "reset";
+
+  private record Frame(long sequence, String name, String data) {
+  }
+
+  private static final Frame HEARTBEAT = new Frame(-1, null, null);
+
+  private final ObjectMapper objectMapper;
+  private final int replaySize;
+  private final int queueCapacity;
+  private final int maxSubscribers;
+  private final long timeoutMillis;
+  private final Counter dropped;
+
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+  private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  // Guarded by this, together with sequence, so a new subscriber sees each change either in replay or live
+  private final Deque<Frame> replay = new ArrayDeque<>();
+  private long sequence;
+
+  public ChangeFeed(
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${app.changes.replay-size:1024}") int replaySize,
+      @Value("${app.changes.queue-capacity:256}") int queueCapacity,
+      @Value("${app.changes.max-subscribers:10000}") int maxSubscribers,
+      @Value("${app.changes.timeout:PT30M}") Duration timeout
+  ) {
+    this.objectMapper = objectMapper;
+    this.replaySize = replaySize;
+    this.queueCapacity = queueCapacity;
+    this.maxSubscribers = maxSubscribers;
+    this.timeoutMillis = timeout.toMillis();
+    this.dropped = Counter.builder("changes.subscribers.dropped")
+        .description("Change feed subscribers disconnected because they fell too far behind")
+        .register(meterRegistry);
+    Gauge.builder("changes.subscribers", subscribers, Set::size)
+        .description("Connected change feed subscribers")
+        .register(meterRegistry);
+  }
+
+  /* Publishes a change once the surrounding transaction commits; rolled back changes are never sent */
+  public void publish(String resource, ChangeAction action, String resourceId, Object data) {
+    ChangeEvent event = ChangeEvent.builder()
+        .resource(resource)
+        .action(action)
+        .resourceId(resourceId)
+        .data(data)
+        .build();
+    TransactionUtils.afterCommit(() -> broadcast(event));
+  }
+
+  /* Opens a stream, first replaying the changes after lastEventId when the client is resuming */
+  public SseEmitter subscribe(String lastEventId) {
+    if (subscribers.size() >= maxSubscribers) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many change feed subscribers");
+    }
+    SseEmitter emitter = new SseEmitter(timeoutMillis);
+    register(emitter, lastEventId);
+    return emitter;
+  }
+
+  void register(SseEmitter emitter, String lastEventId) {
+    Subscriber subscriber;
+    synchronized (this) {
+      List<Frame> missed = missedSince(lastEventId);
+      subscriber = new Subscriber(emitter, missed.size() + queueCapacity + 1);
+      // Spring sends the response headers with the first event, so open every stream with a comment
+      subscriber.queue.add(HEARTBEAT);
+      subscriber.queue.addAll(missed);
+      subscribers.add(subscriber);
+    }
+    emitter.onCompletion(subscriber::close);
+    emitter.onTimeout(subscriber::close);
+    emitter.onError(error -> subscriber.close());
+    subscriber.schedule();
+  }
+
+  // Keeps idle connections open through proxies and notices clients that went away
+  @Scheduled(
+      fixedDelayString = "${app.changes.heartbeat-interval:PT15S}",
+      initialDelayString = "${app.changes.heartbeat-interval:PT15S}")
+  public void heartbeat() {
+    subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+  }
+
+  // Ends the open streams before graceful shutdown starts waiting for in-flight requests; clients reconnect elsewhere
+  @EventListener(ContextClosedEvent.class)
+  public void closeStreams() {
+    subscribers.forEach(subscriber -> {
+      subscriber.close();
+      subscriber.emitter.complete();
+    });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    closeStreams();
+    senders.shutdownNow();
+  }
+
+  private void broadcast(ChangeEvent event) {
+    String data;
+    try {
+      data = objectMapper.writeValueAsString(event);
+    } catch (JsonProcessingException e) {
+      log.error("Cannot serialize {} {} change", event.getResource(), event.getAction(), e);
+      return;
+    }
+    String name = event.getResource() + "." + event.getAction().name().toLowerCase(Locale.ROOT);
+    synchronized (this) {
+      Frame frame = new Frame(++sequence, name, data);
+      replay.addLast(frame);
+      if (replay.size() > replaySize) {
+        replay.removeFirst();
+      }
+      subscribers.forEach(subscriber -> subscriber.offer(frame));
+    }
+  }
+
+  // Caller holds the lock. A reset frame first when the client cannot be caught up from the replay buffer
+  private List<Frame> missedSince(String lastEventId) {
+    List<Frame> missed = new ArrayList<>();
+    if (lastEventId == null || lastEventId.isBlank()) {
+      return missed;
+    }
+    Long last = parseSequence(lastEventId);
+    long oldest = replay.isEmpty() ? sequence + 1 : replay.getFirst().sequence();
+    if (last == null || last > sequence || last < oldest - 1) {
+      missed.add(new Frame(sequence, RESET_EVENT, "{}"));
+      return missed;
+    }
+    for (Frame frame : replay) {
+      if (frame.sequence() > last) {
+        missed.add(frame);
+      }
+    }
+    return missed;
+  }
+
+  private Long parseSequence(String eventId) {
+    int separator = eventId.indexOf('-');
+    if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) {
+      return null;
+    }
+    try {
+      return Long.parseLong(eventId.substring(separator + 1));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private final class Subscriber {
+    private final SseEmitter emitter;
+    private final BlockingQueue<Frame> queue;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    private Subscriber(SseEmitter emitter, int capacity) {
+      this.emitter = emitter;
+      this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    private void offer(Frame frame) {
+      if (closed) {
+        return;
+      }
+      if (queue.offer(frame)) {
+        schedule();
+      } else if (frame != HEARTBEAT) {
+        // Too far behind: let it reconnect and catch up from the replay buffer rather than buffer without bound
+        dropped.increment();
+        close();
+        emitter.complete();
+      }
+    }
+
+    private void schedule() {
+      if (!closed && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+        senders.execute(this::drain);
+      }
+    }
+
+    private void drain() {
+      try {
+        Frame frame;
+        while (!closed && (frame = queue.poll()) != null) {
+          send(frame);
+        }
+      } catch (IOException | IllegalStateException e) {
+        // The client went away; the container completes the emitter
+        close();
+      } finally {
+        draining.set(false);
+      }
+      // A frame offered after the last poll but before the flag was cleared
+      schedule();
+    }
+
+    private void send(Frame frame) throws IOException {
+      if (frame == HEARTBEAT) {
+        emitter.send(SseEmitter.event().comment(""));
+        return;
+      }
+      emitter.send(SseEmitter.event()
+          .id(epoch + "-" + frame.sequence())
+          .name(frame.name())
+          .data(frame.data()));
+    }
+
+    private void close() {
+      closed = true;
+      subscribers.remove(this);
+      queue.clear();
+    }
+  }
+}
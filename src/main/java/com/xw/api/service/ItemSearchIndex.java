@@ -0,0 +1,153 @@
+package com.xw.api.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.xw.api.repository.ItemRepository;
+import com.xw.api.repository.projection.ItemText;
+import com.xw.api.utils.TransactionUtils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * In-memory inverted index over item name and description.
+ * Tokens map to the items containing them with a per-item weight (name hits count more than description hits).
+ * The token map is sorted, so a prefix lookup is a range scan.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+
+  private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final int NAME_WEIGHT = 4;
+  private static final int DESCRIPTION_WEIGHT = 1;
+  // Exact token matches rank above prefix matches
+  private static final int EXACT_MATCH_BOOST = 2;
+  // Caps the work for very short prefixes such as "a"
+  private static final int MAX_PREFIX_EXPANSIONS = 128;
+
+  private final ItemRepository itemRepository;
+
+  private final NavigableMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+  private final Map<Long, Set<String>> documentTokens = new ConcurrentHashMap<>();
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public void rebuild() {
+    long started = System.currentTimeMillis();
+    try (Stream<ItemText> items = itemRepository.streamAllText()) {
+      items.forEach(item -> put(item.id(), item.name(), item.description()));
+    }
+    log.info("Item search index built with {} items and {} tokens in {} ms",
+        documentTokens.size(), postings.size(), System.currentTimeMillis() - started);
+  }
+
+  /* Adds or replaces an item; inside a transaction the change is applied once it commits */
+  public void index(Long id, String name, String description) {
+    TransactionUtils.afterCommit(() -> put(id, name, description));
+  }
+
+  public void remove(Long id) {
+    TransactionUtils.afterCommit(() -> delete(id));
+  }
+
+  /* Returns the ids of the best matching items, best first */
+  public List<Long> search(String query, int limit) {
+    List<String> terms = tokenize(query).stream().distinct().toList();
+    if (terms.isEmpty() || limit < 1) {
+      return List.of();
+    }
+
+    Map<Long, Integer> scores = new HashMap<>();
+    Map<Long, Integer> matchedTerms = new HashMap<>();
+    for (String term : terms) {
+      Map<Long, Integer> termScores = new HashMap<>();
+      int expansions = 0;
+      for (Map.Entry<String, Map<Long, Integer>> entry : postings.tailMap(term, true).entrySet()) {
+        String token = entry.getKey();
+        if (!token.startsWith(term) || expansions++ >= MAX_PREFIX_EXPANSIONS) {
+          break;
+        }
+        int boost = token.length() == term.length() ? EXACT_MATCH_BOOST : 1;
+        entry.getValue().forEach((id, weight) -> termScores.merge(id, weight * boost, Math::max));
+      }
+      termScores.forEach((id, score) -> {
+        scores.merge(id, score, Integer::sum);
+        matchedTerms.merge(id, 1, Integer::sum);
+      });
+    }
+
+    // Items matching more query terms first, then by score; keep only the top `limit` in a bounded heap
+    Comparator<Long> ranking = Comparator.<Long>comparingInt(matchedTerms::get)
+        .thenComparingInt(scores::get)
+        .thenComparing(Comparator.<Long>reverseOrder());
+    PriorityQueue<Long> top = new PriorityQueue<>(limit + 1, ranking);
+    for (Long id : scores.keySet()) {
+      top.offer(id);
+      if (top.size() > limit) {
+        top.poll();
+      }
+    }
+    List<Long> ranked = new ArrayList<>(top);
+    ranked.sort(ranking.reversed());
+    return ranked;
+  }
+
+  // Writers are serialized so that emptying and re-creating a posting list cannot race; searches never lock
+  private synchronized void put(Long id, String name, String description) {
+    Map<String, Integer> weights = new HashMap<>();
+    tokenize(name).forEach(token -> weights.merge(token, NAME_WEIGHT, Integer::sum));
+    tokenize(description).forEach(token -> weights.merge(token, DESCRIPTION_WEIGHT, Integer::sum));
+
+    Set<String> previous = documentTokens.put(id, new HashSet<>(weights.keySet()));
+    if (previous != null) {
+      previous.stream()
+          .filter(token -> !weights.containsKey(token))
+          .forEach(token -> removePosting(token, id));
+    }
+    weights.forEach((token, weight) ->
+        postings.computeIfAbsent(token, key -> new ConcurrentHashMap<>()).put(id, weight));
+  }
+
+  private synchronized void delete(Long id) {
+    Set<String> tokens = documentTokens.remove(id);
+    if (tokens != null) {
+      tokens.forEach(token -> removePosting(token, id));
+    }
+  }
+
+  private void removePosting(String token, Long id) {
+    postings.computeIfPresent(token, (key, ids) -> {
+      ids.remove(id);
+      return ids.isEmpty() ? null : ids;
+    });
+  }
+
+  private static List<String> tokenize(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    return Stream.of(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+        .filter(token -> !token.isEmpty())
+        .toList();
+  }
+}
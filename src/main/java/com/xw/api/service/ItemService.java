@@ -1,24 +1,55 @@
 package com.xw.api.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
+import com.xw.api.dto.ItemBatchResponse;
+import com.xw.api.dto.ItemBulkDeleteRequest;
+import com.xw.api.dto.ItemBulkResponse;
+import com.xw.api.dto.ItemFilter;
+import com.xw.api.dto.ItemPageResponse;
+import com.xw.api.dto.ItemPriceChangeRequest;
+import com.xw.api.dto.ItemReassignRequest;
 import com.xw.api.dto.ItemRequest;
 import com.xw.api.dto.ItemResponse;
+import com.xw.api.dto.ResourceVersion;
+import com.xw.api.dto.VersionedResponse;
 
 public interface ItemService {
   
   public ItemResponse createItem(ItemRequest request);
 
-  public List<ItemResponse> getItemsByCategory(String categoryId);
+  public ItemBatchResponse importItems(List<ItemRequest> requests);
 
-  public List<ItemResponse> getAllItems();
+  public ItemBatchResponse importItems(InputStream ndjson) throws IOException;
+
+  public ItemPageResponse getItemsByCategory(String categoryId, String cursor, Integer size);
+
+  public ItemPageResponse getAllItems(String cursor, Integer size);
+
+  public ItemPageResponse findItems(ItemFilter filter, String sort, String cursor, Integer size);
+
+  public List<ItemResponse> searchItems(String query, Integer limit);
+
+  public void exportItems(OutputStream out) throws IOException;
 
   public Integer countItemsByCategory(String categoryId);
 
   public void deleteItem(String itemId);
 
-  public ItemResponse updateItem(String itemId, ItemRequest request);
+  // expectedVersion from If-Match, or null for an unconditional update
+  public VersionedResponse<ItemResponse> updateItem(String itemId, ItemRequest request, Long expectedVersion);
+
+  public ItemBulkResponse reassignItems(ItemReassignRequest request);
+
+  public ItemBulkResponse changePrices(ItemPriceChangeRequest request);
+
+  public ItemBulkResponse deleteItems(ItemBulkDeleteRequest request);
 
   public Optional<ItemResponse> getItemById(String itemId);
+
+  public Optional<ResourceVersion> getItemVersion(String itemId);
 }
@@ -0,0 +1,90 @@
+package com.xw.api.service;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.xw.api.repository.UserRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Write-behind buffer for login timestamps of users who have logged in before (first logins are written at once).
+ * Logins only touch a ConcurrentHashMap keyed by userId, so repeat logins between flushes coalesce into one entry
+ * and the buffer never holds more than one entry per user. A scheduled flush, and a final one at shutdown, writes
+ * each user's own login time, one JDBC batch of UPDATE ... WHERE user_id = ? statements per chunk.
+ */
+@Service
+@Slf4j
+public class LastLoginBuffer {
+
+  private final UserRepository userRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final int flushChunkSize;
+
+  private final Map<String, Timestamp> pending = new ConcurrentHashMap<>();
+
+  public LastLoginBuffer(
+      UserRepository userRepository,
+      TransactionTemplate transactionTemplate,
+      @Value("${app.users.last-login.flush-chunk-size:500}") int flushChunkSize
+  ) {
+    this.userRepository = userRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.flushChunkSize = flushChunkSize;
+  }
+
+  public void record(String userId, Timestamp loginAt) {
+    pending.merge(userId, loginAt, LastLoginBuffer::later);
+  }
+
+  public int pendingCount() {
+    return pending.size();
+  }
+
+  @Scheduled(fixedDelayString = "${app.users.last-login.flush-interval:PT5S}")
+  public void flush() {
+    // Take entries out one by one; logins recorded meanwhile simply land in the next flush
+    Map<String, Timestamp> chunk = new HashMap<>();
+    for (String userId : pending.keySet()) {
+      Timestamp loginAt = pending.remove(userId);
+      if (loginAt == null) {
+        continue;
+      }
+      chunk.put(userId, loginAt);
+      if (chunk.size() == flushChunkSize) {
+        write(chunk);
+        chunk = new HashMap<>();
+      }
+    }
+    if (!chunk.isEmpty()) {
+      write(chunk);
+    }
+  }
+
+  @PreDestroy
+  public void flushOnShutdown() {
+    flush();
+  }
+
+  private void write(Map<String, Timestamp> chunk) {
+    try {
+      transactionTemplate.executeWithoutResult(status -> userRepository.updateLastLoginAt(chunk));
+    } catch (RuntimeException e) {
+      // Put the chunk back so the next flush retries it
+      chunk.forEach(this::record);
+      log.warn("Failed to flush {} login timestamps, will retry: {}", chunk.size(), e.getMessage());
+    }
+  }
+
+  private static Timestamp later(Timestamp first, Timestamp second) {
+    return first.after(second) ? first : second;
+  }
+}
@@ -0,0 +1,9 @@
+package com.xw.api.service;
+
+import com.xw.api.dto.ChangeSetResponse;
+
+public interface SyncService {
+
+  public ChangeSetResponse getChanges(String since, String cursor, Integer size);
+
+}
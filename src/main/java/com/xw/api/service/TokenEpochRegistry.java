@@ -0,0 +1,88 @@
+package com.xw.api.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.xw.api.repository.UserRepository;
+import com.xw.api.repository.projection.TokenEpochRow;
+import com.xw.api.utils.TransactionUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * In-memory copy of each user's token epoch (userId -> epoch), so JwtRequestFilter can check a token without a query.
+ * Rebuilt from one two-column select at startup; users missing from the table (created elsewhere since) are
+ * looked up once and then remembered. Deleted users stay in the table as REVOKED so their tokens keep failing fast.
+ * Changes made on this node apply on commit; changes made by other nodes sharing the database are picked up when an
+ * entry is older than app.security.token-epochs.max-age and gets re-read on its next use.
+ */
+@Service
+@Slf4j
+public class TokenEpochRegistry {
+
+  private static final long REVOKED = -1L;
+
+  private final UserRepository userRepository;
+
+  private final long maxAgeMillis;
+
+  private final Map<String, Epoch> epochs = new ConcurrentHashMap<>();
+
+  public TokenEpochRegistry(
+      UserRepository userRepository,
+      @Value("${app.security.token-epochs.max-age:PT30S}") Duration maxAge
+  ) {
+    this.userRepository = userRepository;
+    this.maxAgeMillis = maxAge.toMillis();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    long started = System.currentTimeMillis();
+    List<TokenEpochRow> rows = userRepository.findAllTokenEpochs();
+    // Keep anything published meanwhile: revocations win, otherwise the newer epoch does
+    rows.forEach(row -> epochs.merge(row.userId(), new Epoch(row.tokenEpoch(), started), TokenEpochRegistry::newer));
+    log.info("Loaded token epochs for {} users in {} ms", rows.size(), System.currentTimeMillis() - started);
+  }
+
+  /* True when a token issued under the given epoch is still valid for the user */
+  public boolean isCurrent(String userId, long epoch) {
+    Epoch current = epochs.get(userId);
+    long now = System.currentTimeMillis();
+    // Revocations are final; anything else is re-read once it is too old to rule out a change on another node
+    if (current == null || (current.value() != REVOKED && now - current.checkedAt() > maxAgeMillis)) {
+      Optional<Long> stored = userRepository.findTokenEpochByUserId(userId);
+      current = epochs.merge(userId, new Epoch(stored.orElse(REVOKED), now), TokenEpochRegistry::newer);
+    }
+    return current.value() != REVOKED && current.value() == epoch;
+  }
+
+  /* Records a user's new epoch once the surrounding transaction commits */
+  public void publish(String userId, long epoch) {
+    TransactionUtils.afterCommit(
+        () -> epochs.merge(userId, new Epoch(epoch, System.currentTimeMillis()), TokenEpochRegistry::newer));
+  }
+
+  /* Rejects every token of a deleted user once the surrounding transaction commits */
+  public void revoke(String userId) {
+    TransactionUtils.afterCommit(() -> epochs.put(userId, new Epoch(REVOKED, System.currentTimeMillis())));
+  }
+
+  private static Epoch newer(Epoch known, Epoch candidate) {
+    if (known.value() == REVOKED || candidate.value() == REVOKED) {
+      return known.value() == REVOKED ? known : candidate;
+    }
+    return new Epoch(Math.max(known.value(), candidate.value()), Math.max(known.checkedAt(), candidate.checkedAt()));
+  }
+
+  private record Epoch(long value, long checkedAt) {
+  }
+}
@@ -0,0 +1,42 @@
+package com.xw.api.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.xw.api.repository.TombstoneRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Drops tombstones older than the retention window. Delta syncs from watermarks that old are answered with 410,
+ * so no client can still need them.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TombstoneCompactor {
+
+  private final TombstoneRepository tombstoneRepository;
+
+  @Value("${app.sync.tombstones.retention:P30D}")
+  private Duration retention;
+
+  @Scheduled(
+      fixedDelayString = "${app.sync.tombstones.compact-interval:PT1H}",
+      initialDelayString = "${app.sync.tombstones.compact-interval:PT1H}")
+  @Transactional
+  public int compact() {
+    int removed = tombstoneRepository.deleteAllDeletedBefore(Timestamp.from(Instant.now().minus(retention)));
+    if (removed > 0) {
+      log.info("Compacted {} tombstones older than {}", removed, retention);
+    }
+    return removed;
+  }
+}
@@ -3,8 +3,13 @@ package com.xw.api.service;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.xw.api.dto.SessionResponse;
 import com.xw.api.dto.UserRequest;
 import com.xw.api.dto.UserResponse;
+import com.xw.api.dto.VersionedResponse;
+import com.xw.api.repository.projection.UserTokenRow;
 
 public interface UserService {
 
@@ -12,17 +17,18 @@ public interface UserService {
 
   public UserResponse createInitialSuperUser(UserRequest request);
 
-  public String getUserRole(String userEmail);
-
   public List<UserResponse> getAllUsers();
 
   public void deleteUser(String userId);
 
-  public UserResponse updateUser(String userEmail, UserRequest request);
+  // expectedVersion from If-Match, or null for an unconditional update
+  public VersionedResponse<UserResponse> updateUser(String userEmail, UserRequest request, Long expectedVersion);
+
+  public Optional<VersionedResponse<UserResponse>> getUserByEmail(String userEmail);
 
-  public Optional<UserResponse> getUserByEmail(String userEmail);
+  public SessionResponse getSessionSnapshot(UserDetails principal);
 
-  public void updateLastLoginAt(String userEmail);
+  public UserTokenRow getTokenRow(String userEmail);
 
-  public boolean hasCurrentUserNeverLoggedIn(String userEmail);
-}
\ No newline at end of file
+  public void recordLogin(UserTokenRow user);
+}
@@ -1,18 +1,29 @@
 package com.xw.api.service.implementation;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import com.xw.api.common.ChangeAction;
+import com.xw.api.config.CacheConfig;
 import com.xw.api.dto.CategoryRequest;
 import com.xw.api.dto.CategoryResponse;
+import com.xw.api.dto.ResourceVersion;
+import com.xw.api.dto.VersionedResponse;
 import com.xw.api.entity.CategoryEntity;
+import com.xw.api.exception.VersionConflictException;
 import com.xw.api.repository.CategoryRepository;
 import com.xw.api.repository.ItemRepository;
+import com.xw.api.repository.TombstoneRepository;
+import com.xw.api.repository.projection.EntityVersionRow;
+import com.xw.api.service.CategoryCache;
 import com.xw.api.service.CategoryService;
+import com.xw.api.service.ChangeFeed;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -25,14 +36,24 @@ public class CategoryServiceImplementation implements CategoryService {
 
   private final ItemRepository itemRepository;
 
+  private final CategoryCache categoryCache;
+
+  private final ChangeFeed changeFeed;
+
+  private final TombstoneRepository tombstoneRepository;
+
   @Override
   public CategoryResponse createCategory(CategoryRequest request) {
     CategoryEntity newEntity = convertToEntity(request);
     newEntity = categoryRepository.save(newEntity);
-    return convertToResponse(newEntity);
+    categoryCache.evictList();
+    // A freshly created category cannot have any items yet
+    CategoryResponse response = convertToResponse(newEntity, 0);
+    changeFeed.publish(ChangeFeed.CATEGORY, ChangeAction.CREATED, response.getCategoryId(), response);
+    return response;
   }
 
-  private CategoryResponse convertToResponse(CategoryEntity newEntity) {
+  static CategoryResponse convertToResponse(CategoryEntity newEntity, Integer itemsCount) {
     return CategoryResponse.builder()
         .categoryId(newEntity.getCategoryId())
         .name(newEntity.getName())
@@ -40,7 +61,7 @@ public class CategoryServiceImplementation implements CategoryService {
         .bgColor(newEntity.getBgColor())
         .createdAt(newEntity.getCreatedAt())
         .updatedAt(newEntity.getUpdatedAt())
-        .itemsCount(itemRepository.countByCategory(newEntity.getId()))
+        .itemsCount(itemsCount)
         .build();
   }
 
@@ -55,10 +76,16 @@ public class CategoryServiceImplementation implements CategoryService {
 
   @Override
   public List<CategoryResponse> getAllCategories() {
-    return categoryRepository.findAll()
-        .stream()
-        .map(this::convertToResponse)
-        .collect(Collectors.toList());
+    return List.copyOf(categoryRepository.findAllWithItemsCount());
+  }
+
+  @Override
+  @Cacheable(cacheNames = CacheConfig.CATEGORY_LIST, key = "'all'")
+  public VersionedResponse<List<CategoryResponse>> getVersionedCategories() {
+    // The ETag is cached with the list it describes. Reading the version first means a write committing in
+    // between can only leave the list newer than its ETag, never a fresh ETag on a stale list.
+    ResourceVersion version = getCategoriesVersion();
+    return new VersionedResponse<>(getAllCategories(), version);
   }
 
   @Override
@@ -67,13 +94,21 @@ public class CategoryServiceImplementation implements CategoryService {
     CategoryEntity entity = categoryRepository.findByCategoryId(categoryId)
         .orElseThrow(() -> new RuntimeException("Category not found with id: " + categoryId));
     categoryRepository.delete(entity);
+    tombstoneRepository.record(categoryId, ChangeFeed.CATEGORY, new Timestamp(System.currentTimeMillis()));
+    categoryCache.evict(categoryId);
+    changeFeed.publish(ChangeFeed.CATEGORY, ChangeAction.DELETED, categoryId, null);
   }
 
   @Override
   @Transactional
-  public CategoryResponse updateCategory(String categoryId, CategoryRequest request) {
+  public VersionedResponse<CategoryResponse> updateCategory(String categoryId, CategoryRequest request,
+      Long expectedVersion) {
     CategoryEntity newEntity = categoryRepository.findByCategoryId(categoryId)
         .orElseThrow(() -> new RuntimeException("Category not found with id: " + categoryId));
+    if (expectedVersion != null && !expectedVersion.equals(newEntity.getVersion())) {
+      throw new VersionConflictException("Category " + categoryId + " has changed since version " + expectedVersion,
+          true);
+    }
 
     if (request.getName() != null) {
       newEntity.setName(request.getName());
@@ -85,13 +120,34 @@ public class CategoryServiceImplementation implements CategoryService {
       newEntity.setBgColor(request.getBgColor());
     }
 
-    newEntity = categoryRepository.save(newEntity);
-    return convertToResponse(newEntity);
+    // Versioned UPDATE: a rename committed since the read fails here rather than being overwritten
+    try {
+      newEntity = categoryRepository.saveAndFlush(newEntity);
+    } catch (OptimisticLockingFailureException e) {
+      throw new VersionConflictException("Category " + categoryId + " was changed concurrently", expectedVersion != null,
+          e);
+    }
+    categoryCache.evict(categoryId);
+    CategoryResponse response = convertToResponse(newEntity, newEntity.getItemsCount());
+    changeFeed.publish(ChangeFeed.CATEGORY, ChangeAction.UPDATED, categoryId, response);
+    return new VersionedResponse<>(response, ResourceVersion.of(new EntityVersionRow(newEntity.getVersion(),
+        newEntity.getItemsCount().longValue(), newEntity.getUpdatedAt())));
   }
 
   @Override
   public Optional<CategoryResponse> getCategoryById(String categoryId) {
-    Optional<CategoryEntity> entityOpt = categoryRepository.findByCategoryId(categoryId);
-    return entityOpt.map(this::convertToResponse);
+    return categoryRepository.findWithItemsCountByCategoryId(categoryId);
+  }
+
+  @Override
+  public ResourceVersion getCategoriesVersion() {
+    // Item counts are part of every CategoryResponse, so item changes must change this version too
+    return ResourceVersion.of("categories", categoryRepository.findVersion(), itemRepository.findVersion());
+  }
+
+  @Override
+  public Optional<ResourceVersion> getCategoryVersion(String categoryId) {
+    return categoryRepository.findVersionByCategoryId(categoryId)
+        .map(ResourceVersion::of);
   }
 }
@@ -1,21 +1,71 @@
 package com.xw.api.service.implementation;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xw.api.common.ChangeAction;
+import com.xw.api.common.ItemSortField;
+import com.xw.api.dto.ItemBatchError;
+import com.xw.api.dto.ItemBatchResponse;
+import com.xw.api.dto.ItemBulkDeleteRequest;
+import com.xw.api.dto.ItemBulkResponse;
+import com.xw.api.dto.ItemFilter;
+import com.xw.api.dto.ItemPageResponse;
+import com.xw.api.dto.ItemPriceChangeRequest;
+import com.xw.api.dto.ItemReassignRequest;
 import com.xw.api.dto.ItemRequest;
 import com.xw.api.dto.ItemResponse;
+import com.xw.api.dto.ResourceVersion;
+import com.xw.api.dto.VersionedResponse;
 import com.xw.api.entity.CategoryEntity;
 import com.xw.api.entity.ItemEntity;
+import com.xw.api.exception.VersionConflictException;
 import com.xw.api.repository.CategoryRepository;
+import com.xw.api.repository.ItemFilterRepository;
 import com.xw.api.repository.ItemRepository;
+import com.xw.api.repository.TombstoneRepository;
+import com.xw.api.repository.projection.EntityVersionRow;
+import com.xw.api.repository.projection.ItemKeyRow;
+import com.xw.api.repository.projection.ItemRow;
+import com.xw.api.service.CategoryCache;
+import com.xw.api.service.ChangeFeed;
+import com.xw.api.service.ItemSearchIndex;
 import com.xw.api.service.ItemService;
+import com.xw.api.utils.CursorUtils;
 
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 
 
@@ -27,16 +77,52 @@ public class ItemServiceImplementation implements ItemService {
 
   private final CategoryRepository categoryRepository;
 
+  private final EntityManager entityManager;
+
+  private final ObjectMapper objectMapper;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final ItemSearchIndex itemSearchIndex;
+
+  private final CategoryCache categoryCache;
+
+  private final ChangeFeed changeFeed;
+
+  private final TombstoneRepository tombstoneRepository;
+
+  @Value("${app.items.search.default-limit:20}")
+  private int defaultSearchLimit;
+
+  @Value("${app.items.import.chunk-size:500}")
+  private int importChunkSize;
+
+  @Value("${app.items.page.default-size:50}")
+  private int defaultPageSize;
+
+  @Value("${app.items.page.max-size:500}")
+  private int maxPageSize;
+
   @Override
+  @Transactional
   public ItemResponse createItem(ItemRequest request) {
     ItemEntity newEntity = convertToEntity(request);
     newEntity = itemRepository.save(newEntity);
-    return convertToResponse(newEntity);
+    categoryRepository.adjustItemsCount(newEntity.getCategory().getId(), 1);
+    indexForSearch(newEntity);
+    categoryCache.evictList();
+    ItemResponse response = convertToResponse(newEntity);
+    changeFeed.publish(ChangeFeed.ITEM, ChangeAction.CREATED, response.getItemId(), response);
+    return response;
   }
 
   private ItemEntity convertToEntity(ItemRequest request) {
-    CategoryEntity category = categoryRepository.findByCategoryId(request.getCategoryId())
+    CategoryEntity category = categoryCache.findByCategoryId(request.getCategoryId())
         .orElseThrow(() -> new IllegalArgumentException("Invalid category ID"));
+    return convertToEntity(request, category);
+  }
+
+  private ItemEntity convertToEntity(ItemRequest request, CategoryEntity category) {
     return ItemEntity.builder()
     .itemId(UUID.randomUUID().toString())
     .name(request.getName())
@@ -46,7 +132,7 @@ public class ItemServiceImplementation implements ItemService {
     .build();
   }
 
-  private ItemResponse convertToResponse(ItemEntity newEntity) {
+  static ItemResponse convertToResponse(ItemEntity newEntity) {
     return ItemResponse.builder()
         .itemId(newEntity.getItemId())
         .name(newEntity.getName())
@@ -59,21 +145,243 @@ public class ItemServiceImplementation implements ItemService {
         .build();
   }
 
+  /* State carried across the chunks of one bulk import */
+  private static class ImportRun {
+    // Categories resolved so far; unknown category IDs are remembered with a null value
+    private final Map<String, CategoryEntity> categories = new HashMap<>();
+    private final Set<String> names = new HashSet<>();
+    private final List<ItemBatchError> errors = new ArrayList<>();
+    private int created;
+
+    private void reject(int index, String name, String message) {
+      errors.add(ItemBatchError.builder().index(index).name(name).message(message).build());
+    }
+
+    private ItemBatchResponse toResponse(int received) {
+      return ItemBatchResponse.builder()
+          .received(received)
+          .created(created)
+          .errors(errors)
+          .build();
+    }
+  }
+
+  private record ImportRow(int index, ItemRequest request, CategoryEntity category) {
+  }
+
+  @Override
+  public ItemBatchResponse importItems(List<ItemRequest> requests) {
+    ImportRun run = new ImportRun();
+    for (int start = 0; start < requests.size(); start += importChunkSize) {
+      importChunk(run, start, requests.subList(start, Math.min(start + importChunkSize, requests.size())));
+    }
+    return run.toResponse(requests.size());
+  }
+
+  @Override
+  public ItemBatchResponse importItems(InputStream ndjson) throws IOException {
+    BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+    ImportRun run = new ImportRun();
+    List<ItemRequest> chunk = new ArrayList<>(importChunkSize);
+    int received = 0;
+    String line;
+    while ((line = reader.readLine()) != null) {
+      if (line.isBlank()) {
+        continue;
+      }
+      try {
+        chunk.add(objectMapper.readValue(line, ItemRequest.class));
+      } catch (JsonProcessingException e) {
+        // Keep the slot so later rows still report their own line position
+        chunk.add(null);
+        run.reject(received, null, "Malformed JSON: " + e.getOriginalMessage());
+      }
+      received++;
+      if (chunk.size() == importChunkSize) {
+        importChunk(run, received - chunk.size(), chunk);
+        chunk = new ArrayList<>(importChunkSize);
+      }
+    }
+    if (!chunk.isEmpty()) {
+      importChunk(run, received - chunk.size(), chunk);
+    }
+    return run.toResponse(received);
+  }
+
+  private void importChunk(ImportRun run, int offset, List<ItemRequest> chunk) {
+    // Resolve every category not seen in an earlier chunk with one query
+    Set<String> unresolved = chunk.stream()
+        .filter(Objects::nonNull)
+        .map(ItemRequest::getCategoryId)
+        .filter(categoryId -> categoryId != null && !run.categories.containsKey(categoryId))
+        .collect(Collectors.toSet());
+    if (!unresolved.isEmpty()) {
+      unresolved.forEach(categoryId -> run.categories.put(categoryId, null));
+      categoryCache.findAllByCategoryIdIn(unresolved)
+          .forEach(category -> run.categories.put(category.getCategoryId(), category));
+    }
+
+    Set<String> names = chunk.stream()
+        .filter(request -> request != null && request.getName() != null)
+        .map(ItemRequest::getName)
+        .collect(Collectors.toSet());
+    Set<String> existingNames = names.isEmpty()
+        ? Set.of()
+        : new HashSet<>(itemRepository.findExistingNames(names));
+
+    List<ImportRow> accepted = new ArrayList<>(chunk.size());
+    for (int i = 0; i < chunk.size(); i++) {
+      ItemRequest request = chunk.get(i);
+      int index = offset + i;
+      if (request == null) {
+        continue;
+      }
+      CategoryEntity category = request.getCategoryId() == null ? null : run.categories.get(request.getCategoryId());
+      if (request.getName() == null || request.getName().isBlank()) {
+        run.reject(index, request.getName(), "Item name cannot be empty");
+      } else if (category == null) {
+        run.reject(index, request.getName(), "Invalid category ID: " + request.getCategoryId());
+      } else if (existingNames.contains(request.getName()) || !run.names.add(request.getName())) {
+        run.reject(index, request.getName(), "Item already exists with name: " + request.getName());
+      } else {
+        accepted.add(new ImportRow(index, request, category));
+      }
+    }
+    if (accepted.isEmpty()) {
+      return;
+    }
+
+    try {
+      // One transaction per chunk: inserts go out in JDBC batches with ids taken from the pooled sequence
+      transactionTemplate.executeWithoutResult(status -> {
+        itemRepository.saveAll(accepted.stream()
+            .map(row -> convertToEntity(row.request(), row.category()))
+            .collect(Collectors.toList()))
+            .forEach(this::indexCreated);
+        // One count adjustment per category in the chunk, in the same transaction as the inserts
+        accepted.stream()
+            .collect(Collectors.groupingBy(row -> row.category().getId(), Collectors.counting()))
+            .forEach((categoryId, added) -> categoryRepository.adjustItemsCount(categoryId, added.intValue()));
+      });
+      run.created += accepted.size();
+    } catch (DataAccessException e) {
+      // A conflicting row appeared after validation: retry one row at a time to report only the failing ones
+      for (ImportRow row : accepted) {
+        try {
+          transactionTemplate.executeWithoutResult(status -> {
+            indexCreated(itemRepository.save(convertToEntity(row.request(), row.category())));
+            categoryRepository.adjustItemsCount(row.category().getId(), 1);
+          });
+          run.created++;
+        } catch (DataAccessException rowException) {
+          run.reject(row.index(), row.request().getName(), rowException.getMostSpecificCause().getMessage());
+        }
+      }
+    }
+    // Item counts in the category list changed
+    categoryCache.evictList();
+    // Inserted rows are not needed any more; keep the (request scoped) persistence context small
+    entityManager.clear();
+  }
+
+  private void indexForSearch(ItemEntity entity) {
+    itemSearchIndex.index(entity.getId(), entity.getName(), entity.getDescription());
+  }
+
+  private void indexCreated(ItemEntity entity) {
+    indexForSearch(entity);
+    changeFeed.publish(ChangeFeed.ITEM, ChangeAction.CREATED, entity.getItemId(), convertToResponse(entity));
+  }
+
+  private int resolvePageSize(Integer size) {
+    if (size == null) {
+      return defaultPageSize;
+    }
+    if (size < 1) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page size must be positive");
+    }
+    return Math.min(size, maxPageSize);
+  }
+
+  private CursorUtils.Cursor decodeCursor(String cursor) {
+    try {
+      return CursorUtils.decode(cursor);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+    }
+  }
+
+  private ItemPageResponse toPage(List<ItemRow> rows, int pageSize) {
+    return toPage(rows, pageSize, last -> CursorUtils.encode(last.createdAt(), last.id()));
+  }
+
+  // Pages are fetched with one extra row so we know whether a next page exists without counting
+  private ItemPageResponse toPage(List<ItemRow> rows, int pageSize, Function<ItemRow, String> cursorOf) {
+    boolean hasMore = rows.size() > pageSize;
+    List<ItemRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+    String nextCursor = null;
+    if (hasMore) {
+      nextCursor = cursorOf.apply(page.get(page.size() - 1));
+    }
+    return ItemPageResponse.builder()
+        .items(page.stream().map(ItemRow::toResponse).collect(Collectors.toList()))
+        .nextCursor(nextCursor)
+        .build();
+  }
+
   @Override
-  public List<ItemResponse> getItemsByCategory(String categoryId) {
-    CategoryEntity category = categoryRepository.findByCategoryId(categoryId)
+  public ItemPageResponse getItemsByCategory(String categoryId, String cursor, Integer size) {
+    CategoryEntity category = categoryCache.findByCategoryId(categoryId)
         .orElseThrow(() -> new IllegalArgumentException("Invalid category ID"));
-    return itemRepository.findAllByCategoryId(category.getId())
-    .stream()
-    .map(this::convertToResponse)
-    .collect(Collectors.toList());
+    int pageSize = resolvePageSize(size);
+    Limit limit = Limit.of(pageSize + 1);
+    if (cursor == null || cursor.isEmpty()) {
+      return toPage(itemRepository.findFirstPageByCategoryId(category.getId(), limit), pageSize);
+    }
+    CursorUtils.Cursor position = decodeCursor(cursor);
+    return toPage(itemRepository.findPageAfterByCategoryId(
+        category.getId(), position.createdAt(), position.id(), limit), pageSize);
+  }
+
+  @Override
+  public List<ItemResponse> searchItems(String query, Integer limit) {
+    int resultLimit = limit == null ? defaultSearchLimit : Math.min(Math.max(limit, 1), maxPageSize);
+    List<Long> ranked = itemSearchIndex.search(query, resultLimit);
+    if (ranked.isEmpty()) {
+      return List.of();
+    }
+    // One lookup by primary key for the hits, then restore the index ranking
+    Map<Long, ItemRow> rows = itemRepository.findRowsByIdIn(ranked)
+        .stream()
+        .collect(Collectors.toMap(ItemRow::id, row -> row));
+    return ranked.stream()
+        .map(rows::get)
+        .filter(Objects::nonNull)
+        .map(ItemRow::toResponse)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public void exportItems(OutputStream out) throws IOException {
+    try (Stream<ItemEntity> items = itemRepository.streamAll()) {
+      Iterator<ItemEntity> iterator = items.iterator();
+      while (iterator.hasNext()) {
+        ItemEntity entity = iterator.next();
+        out.write(objectMapper.writeValueAsBytes(convertToResponse(entity)));
+        out.write('\n');
+        // Drop each row from the persistence context once written so memory stays flat
+        entityManager.detach(entity);
+      }
+    }
+    out.flush();
   }
 
   @Override
   public Integer countItemsByCategory(String categoryId) {
-    CategoryEntity category = categoryRepository.findByCategoryId(categoryId)
+    // Maintained counter: a single-row read however many items the category holds
+    return categoryRepository.findItemsCountByCategoryId(categoryId)
         .orElseThrow(() -> new IllegalArgumentException("Invalid category ID"));
-    return itemRepository.countByCategory(category.getId());
   }
 
   @Override
@@ -82,13 +390,21 @@ public class ItemServiceImplementation implements ItemService {
     ItemEntity entity = itemRepository.findByItemId(itemId)
         .orElseThrow(() -> new RuntimeException("Item not found with id: " + itemId));
     itemRepository.delete(entity);
+    tombstoneRepository.record(itemId, ChangeFeed.ITEM, new Timestamp(System.currentTimeMillis()));
+    categoryRepository.adjustItemsCount(entity.getCategory().getId(), -1);
+    itemSearchIndex.remove(entity.getId());
+    categoryCache.evictList();
+    changeFeed.publish(ChangeFeed.ITEM, ChangeAction.DELETED, itemId, null);
   }
 
   @Override
   @Transactional
-  public ItemResponse updateItem(String itemId, ItemRequest request) {
+  public VersionedResponse<ItemResponse> updateItem(String itemId, ItemRequest request, Long expectedVersion) {
     ItemEntity entity = itemRepository.findByItemId(itemId)
         .orElseThrow(() -> new RuntimeException("Item not found with id: " + itemId));
+    if (expectedVersion != null && !expectedVersion.equals(entity.getVersion())) {
+      throw new VersionConflictException("Item " + itemId + " has changed since version " + expectedVersion, true);
+    }
     if (request.getName() != null) {
       entity.setName(request.getName());
     }
@@ -98,27 +414,200 @@ public class ItemServiceImplementation implements ItemService {
     if (request.getPrice() != null) {
       entity.setPrice(request.getPrice());
     }
+    Long previousCategoryId = entity.getCategory().getId();
     if (request.getCategoryId() != null) {
-      CategoryEntity category = categoryRepository.findByCategoryId(request.getCategoryId())
+      CategoryEntity category = categoryCache.findByCategoryId(request.getCategoryId())
           .orElseThrow(() -> new IllegalArgumentException("Invalid category ID"));
-      entity.setCategory(category);
+      if (!previousCategoryId.equals(category.getId())) {
+        entity.setCategory(category);
+      }
+    }
+    // The UPDATE matches the version read above, so a write committed in between fails here instead of being lost
+    try {
+      entity = itemRepository.saveAndFlush(entity);
+    } catch (OptimisticLockingFailureException e) {
+      throw new VersionConflictException("Item " + itemId + " was changed concurrently", expectedVersion != null, e);
     }
-    entity = itemRepository.save(entity);
-    return convertToResponse(entity);
+    CategoryEntity category = entity.getCategory();
+    if (!previousCategoryId.equals(category.getId())) {
+      categoryRepository.adjustItemsCount(previousCategoryId, -1);
+      categoryRepository.adjustItemsCount(category.getId(), 1);
+      categoryCache.evictList();
+    }
+    indexForSearch(entity);
+    ItemResponse response = convertToResponse(entity);
+    changeFeed.publish(ChangeFeed.ITEM, ChangeAction.UPDATED, itemId, response);
+    Timestamp lastModified = category.getUpdatedAt() != null && category.getUpdatedAt().after(entity.getUpdatedAt())
+        ? category.getUpdatedAt() : entity.getUpdatedAt();
+    return new VersionedResponse<>(response,
+        ResourceVersion.of(new EntityVersionRow(entity.getVersion(), category.getVersion(), lastModified)));
+  }
+
+  @Override
+  @Transactional
+  public ItemBulkResponse reassignItems(ItemReassignRequest request) {
+    CategoryEntity source = requireCategory(request.getFromCategoryId());
+    CategoryEntity target = requireCategory(request.getToCategoryId());
+    if (source.getId().equals(target.getId())) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Source and target category are the same");
+    }
+    int moved = itemRepository.moveAllToCategory(source.getId(), target, new Timestamp(System.currentTimeMillis()));
+    if (moved > 0) {
+      categoryRepository.adjustItemsCount(source.getId(), -moved);
+      categoryRepository.adjustItemsCount(target.getId(), moved);
+      categoryCache.evictList();
+      changeFeed.publish(ChangeFeed.ITEMS, ChangeAction.UPDATED, null, request);
+    }
+    return ItemBulkResponse.builder().affected(moved).build();
+  }
+
+  @Override
+  @Transactional
+  public ItemBulkResponse changePrices(ItemPriceChangeRequest request) {
+    if ((request.getAmount() == null) == (request.getPercent() == null)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Exactly one of amount and percent is required");
+    }
+    // A missing or empty filter would reprice the whole catalog; that has to be asked for with a condition
+    ItemFilter filter = request.getFilter();
+    if (filter == null || !hasCondition(filter)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A filter with at least one condition is required");
+    }
+    if (request.getPercent() != null && request.getPercent().compareTo(BigDecimal.valueOf(-100)) <= 0) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "percent must be greater than -100");
+    }
+    int changed = itemRepository.changePrices(filter, request.getAmount(), request.getPercent(),
+        new Timestamp(System.currentTimeMillis()));
+    if (changed > 0) {
+      changeFeed.publish(ChangeFeed.ITEMS, ChangeAction.UPDATED, null, request);
+    }
+    return ItemBulkResponse.builder().affected(changed).build();
+  }
+
+  // Per chunk: one query for the keys, then one DELETE and one count adjustment per category involved
+  @Override
+  @Transactional
+  public ItemBulkResponse deleteItems(ItemBulkDeleteRequest request) {
+    List<String> itemIds = request.getItemIds() == null ? List.of()
+        : request.getItemIds().stream().filter(Objects::nonNull).distinct().toList();
+    Set<String> found = new HashSet<>();
+    Timestamp now = new Timestamp(System.currentTimeMillis());
+    int deleted = 0;
+    for (int from = 0; from < itemIds.size(); from += importChunkSize) {
+      List<String> chunk = itemIds.subList(from, Math.min(from + importChunkSize, itemIds.size()));
+      Map<Long, List<ItemKeyRow>> byCategory = itemRepository.findKeysByItemIdIn(chunk).stream()
+          .collect(Collectors.groupingBy(ItemKeyRow::categoryId));
+      for (Map.Entry<Long, List<ItemKeyRow>> group : byCategory.entrySet()) {
+        List<Long> ids = group.getValue().stream().map(ItemKeyRow::id).toList();
+        tombstoneRepository.recordAll(ids, ChangeFeed.ITEM, now);
+        int removed = itemRepository.deleteAllByIdInAndCategoryId(ids, group.getKey());
+        categoryRepository.adjustItemsCount(group.getKey(), -removed);
+        deleted += removed;
+        for (ItemKeyRow row : group.getValue()) {
+          found.add(row.itemId());
+          itemSearchIndex.remove(row.id());
+          changeFeed.publish(ChangeFeed.ITEM, ChangeAction.DELETED, row.itemId(), null);
+        }
+      }
+    }
+    if (deleted > 0) {
+      categoryCache.evictList();
+    }
+    return ItemBulkResponse.builder()
+        .affected(deleted)
+        .missingItemIds(itemIds.stream().filter(itemId -> !found.contains(itemId)).toList())
+        .build();
+  }
+
+  private static boolean hasCondition(ItemFilter filter) {
+    return filter.getCategoryId() != null || filter.getMinPrice() != null || filter.getMaxPrice() != null
+        || (filter.getNamePrefix() != null && !filter.getNamePrefix().isEmpty())
+        || filter.getCreatedFrom() != null || filter.getCreatedTo() != null
+        || filter.getUpdatedFrom() != null || filter.getUpdatedTo() != null;
+  }
+
+  private CategoryEntity requireCategory(String categoryId) {
+    return Optional.ofNullable(categoryId)
+        .flatMap(categoryCache::findByCategoryId)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid category ID: " + categoryId));
   }
 
   @Override
   public Optional<ItemResponse> getItemById(String itemId) {
-    return itemRepository.findByItemId(itemId)
-        .map(this::convertToResponse);
+    return itemRepository.findResponseByItemId(itemId);
   }
 
   @Override
-  public List<ItemResponse> getAllItems() {
-    return itemRepository.findAll()
-        .stream()
-        .map(this::convertToResponse)
-        .collect(Collectors.toList());
+  public Optional<ResourceVersion> getItemVersion(String itemId) {
+    return itemRepository.findVersionByItemId(itemId)
+        .map(ResourceVersion::of);
+  }
+
+  @Override
+  public ItemPageResponse getAllItems(String cursor, Integer size) {
+    int pageSize = resolvePageSize(size);
+    Limit limit = Limit.of(pageSize + 1);
+    if (cursor == null || cursor.isEmpty()) {
+      return toPage(itemRepository.findFirstPage(limit), pageSize);
+    }
+    CursorUtils.Cursor position = decodeCursor(cursor);
+    return toPage(itemRepository.findPageAfter(position.createdAt(), position.id(), limit), pageSize);
+  }
+
+  @Override
+  public ItemPageResponse findItems(ItemFilter filter, String sort, String cursor, Integer size) {
+    String requested = sort == null || sort.isBlank() ? ItemSortField.CREATED_AT.attribute() : sort.trim();
+    String[] parts = requested.split(",", -1);
+    ItemSortField field = ItemSortField.fromAttribute(parts[0].trim()).orElse(null);
+    String direction = parts.length > 1 ? parts[1].trim().toLowerCase() : "asc";
+    if (field == null || parts.length > 2 || !(direction.equals("asc") || direction.equals("desc"))) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported sort: " + requested);
+    }
+    boolean descending = direction.equals("desc");
+    // Cursors name the sort they were issued for, so a page cannot continue under a different order
+    String sortKey = field.attribute() + "," + direction;
+    int pageSize = resolvePageSize(size);
+
+    ItemFilterRepository.After after = null;
+    if (cursor != null && !cursor.isEmpty()) {
+      try {
+        CursorUtils.SortCursor position = CursorUtils.decodeSort(cursor);
+        if (!position.sort().equals(sortKey)) {
+          throw new IllegalArgumentException("Cursor was issued for sort " + position.sort());
+        }
+        after = new ItemFilterRepository.After(parseSortValue(field, position.value()), position.id());
+      } catch (IllegalArgumentException e) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+      }
+    }
+    List<ItemRow> rows = itemRepository.findFiltered(filter, field, descending, after, pageSize + 1);
+    return toPage(rows, pageSize, last -> CursorUtils.encode(sortKey, formatSortValue(field, last), last.id()));
   }
-  
+
+  private static String formatSortValue(ItemSortField field, ItemRow row) {
+    return switch (field) {
+      case CREATED_AT -> row.createdAt().toInstant().toString();
+      case UPDATED_AT -> row.updatedAt().toInstant().toString();
+      case NAME -> row.name();
+      case PRICE -> row.price() == null ? null : row.price().toPlainString();
+    };
+  }
+
+  private static Object parseSortValue(ItemSortField field, String value) {
+    if (value == null) {
+      if (!field.nullable()) {
+        throw new IllegalArgumentException("Missing sort value for " + field.attribute());
+      }
+      return null;
+    }
+    try {
+      return switch (field) {
+        case CREATED_AT, UPDATED_AT -> Timestamp.from(Instant.parse(value));
+        case NAME -> value;
+        case PRICE -> new BigDecimal(value);
+      };
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Malformed sort value: " + value, e);
+    }
+  }
+
 }
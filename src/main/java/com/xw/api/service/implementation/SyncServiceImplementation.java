@@ -0,0 +1,158 @@
+package com.xw.api.service.implementation;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.xw.api.dto.ChangeSetResponse;
+import com.xw.api.dto.TombstoneResponse;
+import com.xw.api.entity.CategoryEntity;
+import com.xw.api.repository.CategoryRepository;
+import com.xw.api.repository.ItemRepository;
+import com.xw.api.repository.TombstoneRepository;
+import com.xw.api.repository.projection.ItemRow;
+import com.xw.api.service.SyncService;
+import com.xw.api.utils.CursorUtils;
+import com.xw.api.utils.CursorUtils.ChangesCursor;
+import com.xw.api.utils.CursorUtils.Position;
+
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Delta sync: items and categories whose updatedAt lies in (since, until], and tombstones of deletions in the same
+ * window, each read as a keyset range over its own (time, key) index. The upper bound trails the clock by the
+ * commit lag, so a transaction that stamped its rows just before a sync but commits after it still lands in the
+ * next window. A change set larger than one page continues through a cursor over the same fixed window.
+ */
+@Service
+@RequiredArgsConstructor
+public class SyncServiceImplementation implements SyncService {
+
+  private final ItemRepository itemRepository;
+
+  private final CategoryRepository categoryRepository;
+
+  private final TombstoneRepository tombstoneRepository;
+
+  @Value("${app.sync.commit-lag:PT5S}")
+  private Duration commitLag;
+
+  @Value("${app.sync.tombstones.retention:P30D}")
+  private Duration tombstoneRetention;
+
+  @Value("${app.sync.page.default-size:500}")
+  private int defaultPageSize;
+
+  @Value("${app.sync.page.max-size:2000}")
+  private int maxPageSize;
+
+  private record Page<T>(List<T> rows, Position next) {
+  }
+
+  @Override
+  public ChangeSetResponse getChanges(String since, String cursor, Integer size) {
+    int pageSize = resolvePageSize(size);
+    ChangesCursor position = cursor == null || cursor.isEmpty() ? start(since) : decodeCursor(cursor);
+    Timestamp until = Timestamp.from(position.until());
+
+    Page<ItemRow> items = page(position.items(), pageSize, ItemRow::updatedAt, row -> row.id().toString(),
+        (at, key, limit) -> key == null
+            ? itemRepository.findFirstChanges(at, until, limit)
+            : itemRepository.findChangesAfter(at, Long.valueOf(key), until, limit));
+    Page<CategoryEntity> categories = page(position.categories(), pageSize, CategoryEntity::getUpdatedAt,
+        category -> category.getId().toString(),
+        (at, key, limit) -> key == null
+            ? categoryRepository.findFirstChanges(at, until, limit)
+            : categoryRepository.findChangesAfter(at, Long.valueOf(key), until, limit));
+    Page<TombstoneResponse> deleted = page(position.deleted(), pageSize, TombstoneResponse::getDeletedAt,
+        TombstoneResponse::getResourceId,
+        (at, key, limit) -> key == null
+            ? tombstoneRepository.findFirstChanges(at, until, limit)
+            : tombstoneRepository.findChangesAfter(at, key, until, limit));
+
+    String nextCursor = null;
+    if (items.next() != null || categories.next() != null || deleted.next() != null) {
+      nextCursor = CursorUtils.encode(
+          new ChangesCursor(position.until(), items.next(), categories.next(), deleted.next()));
+    }
+    return ChangeSetResponse.builder()
+        .items(items.rows().stream().map(ItemRow::toResponse).collect(Collectors.toList()))
+        .categories(categories.rows().stream()
+            .map(category -> CategoryServiceImplementation.convertToResponse(category, category.getItemsCount()))
+            .collect(Collectors.toList()))
+        .deleted(deleted.rows())
+        .watermark(position.until().toString())
+        .nextCursor(nextCursor)
+        .build();
+  }
+
+  // Without a watermark the whole catalog is sent and there is nothing to delete on the client
+  private ChangesCursor start(String since) {
+    Instant now = Instant.now();
+    Instant from = Instant.EPOCH;
+    if (since != null && !since.isEmpty()) {
+      try {
+        from = Instant.parse(since);
+      } catch (DateTimeParseException e) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid watermark: " + since, e);
+      }
+      if (from.isBefore(now.minus(tombstoneRetention))) {
+        throw new ResponseStatusException(HttpStatus.GONE,
+            "Watermark is older than the tombstone retention of " + tombstoneRetention + "; sync again without it");
+      }
+    }
+    Instant until = now.minus(commitLag);
+    if (until.isBefore(from)) {
+      until = from;
+    }
+    Position first = new Position(from, null);
+    return new ChangesCursor(until, first, first, from.equals(Instant.EPOCH) ? null : first);
+  }
+
+  private ChangesCursor decodeCursor(String cursor) {
+    try {
+      return CursorUtils.decodeChanges(cursor);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+    }
+  }
+
+  private int resolvePageSize(Integer size) {
+    if (size == null) {
+      return defaultPageSize;
+    }
+    if (size < 1) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page size must be positive");
+    }
+    return Math.min(size, maxPageSize);
+  }
+
+  private interface PageQuery<T> {
+    List<T> find(Timestamp at, String key, Limit limit);
+  }
+
+  // A null position means the source is exhausted; one extra row tells whether it has more
+  private static <T> Page<T> page(Position position, int pageSize, Function<T, Timestamp> timeOf,
+      Function<T, String> keyOf, PageQuery<T> query) {
+    if (position == null) {
+      return new Page<>(List.of(), null);
+    }
+    List<T> rows = query.find(Timestamp.from(position.at()), position.key(), Limit.of(pageSize + 1));
+    if (rows.size() <= pageSize) {
+      return new Page<>(rows, null);
+    }
+    List<T> page = rows.subList(0, pageSize);
+    T last = page.get(pageSize - 1);
+    return new Page<>(page, new Position(timeOf.apply(last).toInstant(), keyOf.apply(last)));
+  }
+}
@@ -1,12 +1,15 @@
 package com.xw.api.service.implementation;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -15,11 +18,19 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.xw.api.common.UserRole;
+import com.xw.api.dto.ResourceVersion;
+import com.xw.api.dto.SessionResponse;
 import com.xw.api.dto.UserRequest;
 import com.xw.api.dto.UserResponse;
+import com.xw.api.dto.VersionedResponse;
 import com.xw.api.entity.UserEntity;
 import com.xw.api.exception.UserNotFoundException;
+import com.xw.api.exception.VersionConflictException;
 import com.xw.api.repository.UserRepository;
+import com.xw.api.repository.projection.EntityVersionRow;
+import com.xw.api.repository.projection.UserTokenRow;
+import com.xw.api.service.LastLoginBuffer;
+import com.xw.api.service.TokenEpochRegistry;
 import com.xw.api.service.UserService;
 
 import lombok.RequiredArgsConstructor;
@@ -30,6 +41,8 @@ public class UserServiceImplementation implements UserService {
 
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
+  private final TokenEpochRegistry tokenEpochRegistry;
+  private final LastLoginBuffer lastLoginBuffer;
 
   private boolean isValidRole(String role) {
     if (role == null) return false;
@@ -60,7 +73,7 @@ public class UserServiceImplementation implements UserService {
         .orElseThrow(() -> new UserNotFoundException("User not found in database with email: " + email));
   }
 
-  private UserResponse convertToResponse(UserEntity entity) {
+  static UserResponse convertToResponse(UserEntity entity) {
     return UserResponse.builder()
         .userId(entity.getUserId())
         .userEmail(entity.getUserEmail())
@@ -72,6 +85,12 @@ public class UserServiceImplementation implements UserService {
         .build();
   }
 
+  // Login times change without the version, so the tag is the version alone and serves If-Match only
+  private static VersionedResponse<UserResponse> versioned(UserEntity entity) {
+    return new VersionedResponse<>(convertToResponse(entity),
+        ResourceVersion.of(new EntityVersionRow(entity.getVersion(), null, entity.getUpdatedAt())));
+  }
+
   private UserEntity convertToEntity(UserRequest request) {
     return UserEntity.builder()
         .userId(UUID.randomUUID().toString())
@@ -128,11 +147,6 @@ public class UserServiceImplementation implements UserService {
     return convertToResponse(newUser);
   }
 
-  @Override
-  public String getUserRole(String userEmail) {
-    return userRepository.findRoleByUserEmail(userEmail);
-  }
-
   @Override
   public List<UserResponse> getAllUsers() {
     UserEntity requester = getRequesterEntity();
@@ -142,7 +156,7 @@ public class UserServiceImplementation implements UserService {
 
     return userRepository.findAll()
         .stream()
-        .map(this::convertToResponse)
+        .map(UserServiceImplementation::convertToResponse)
         .collect(Collectors.toList());
   }
 
@@ -167,6 +181,7 @@ public class UserServiceImplementation implements UserService {
     if (requester.getRole() == UserRole.ROLE_ROOT || 
     (requester.getRole() == UserRole.ROLE_ADMIN && target.getRole() == UserRole.ROLE_USER)) {
       userRepository.delete(target);
+      tokenEpochRegistry.revoke(target.getUserId());
     } else {
       throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not authorized to delete this user");
     }
@@ -174,14 +189,19 @@ public class UserServiceImplementation implements UserService {
 
   @Override
   @Transactional
-  public UserResponse updateUser(String userEmail, UserRequest request) {
+  public VersionedResponse<UserResponse> updateUser(String userEmail, UserRequest request, Long expectedVersion) {
     UserEntity requester = getRequesterEntity();
     UserEntity target = userRepository.findByUserEmail(userEmail)
         .orElseThrow(() -> new UserNotFoundException("User not found with email: " + userEmail));
+    if (expectedVersion != null && !expectedVersion.equals(target.getVersion())) {
+      throw new VersionConflictException("User " + userEmail + " has changed since version " + expectedVersion, true);
+    }
 
     if (target.getRole() == UserRole.ROLE_ROOT) {
       throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot modify root user");
     }
+    // Role, password and email changes invalidate every token issued before them
+    boolean revokeTokens = false;
 
     // Check modification permissions
     if (target.getRole() == UserRole.ROLE_ADMIN && requester.getRole() != UserRole.ROLE_ROOT) {
@@ -205,6 +225,7 @@ public class UserServiceImplementation implements UserService {
         throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot promote user to root");
       }
       target.setRole(newRole);
+      revokeTokens = true;
     }
 
     // Update other fields
@@ -215,24 +236,36 @@ public class UserServiceImplementation implements UserService {
     if (request.getPassword() != null && !request.getPassword().isEmpty() && 
         !passwordEncoder.matches(request.getPassword(), target.getPassword())) {
       target.setPassword(passwordEncoder.encode(request.getPassword()));
+      revokeTokens = true;
     }
     if (request.getUserEmail() != null && !request.getUserEmail().isEmpty() && 
         !request.getUserEmail().equals(target.getUserEmail())) {
       target.setUserEmail(request.getUserEmail());
+      revokeTokens = true;
+    }
+    if (revokeTokens) {
+      target.setTokenEpoch(target.getTokenEpoch() + 1);
     }
 
-    target = userRepository.save(target);
-    return convertToResponse(target);
+    try {
+      target = userRepository.saveAndFlush(target);
+    } catch (OptimisticLockingFailureException e) {
+      throw new VersionConflictException("User " + userEmail + " was changed concurrently", expectedVersion != null, e);
+    }
+    if (revokeTokens) {
+      tokenEpochRegistry.publish(target.getUserId(), target.getTokenEpoch());
+    }
+    return versioned(target);
   }
 
   @Override
-  public Optional<UserResponse> getUserByEmail(String userEmail) {
+  public Optional<VersionedResponse<UserResponse>> getUserByEmail(String userEmail) {
     UserEntity requester = getRequesterEntity();
     if (requester.getRole() == UserRole.ROLE_USER) {
       throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Regular users cannot query other users");
     }
 
-    return userRepository.findByUserEmail(userEmail).map(this::convertToResponse);
+    return userRepository.findByUserEmail(userEmail).map(UserServiceImplementation::versioned);
   }
 
   @Override
@@ -267,26 +300,33 @@ public class UserServiceImplementation implements UserService {
 
   @Override
   @Transactional
-  public void updateLastLoginAt(String userEmail) {
-    Optional<UserEntity> userOpt = userRepository.findByUserEmail(userEmail);
-    if (userOpt.isPresent()) {
-      UserEntity user = userOpt.get();
-      user.setLastLoginAt(new java.sql.Timestamp(System.currentTimeMillis()));
-      userRepository.save(user);
-    }
-    else {
-      throw new UserNotFoundException("User not found with email: " + userEmail);
-    }
+  public SessionResponse getSessionSnapshot(UserDetails principal) {
+    String userEmail = principal.getUsername();
+    // The role is already on the principal resolved by JwtRequestFilter, so no lookup is needed
+    String role = principal.getAuthorities().stream()
+        .map(GrantedAuthority::getAuthority)
+        .findFirst()
+        .orElse(null);
+    // Single conditional UPDATE: it changes a row only the first time, which is also the first-login flag
+    boolean firstLogin = userRepository.markFirstLogin(userEmail, new Timestamp(System.currentTimeMillis())) == 1;
+    return new SessionResponse(userEmail, role, firstLogin);
+  }
+
+  @Override
+  public UserTokenRow getTokenRow(String userEmail) {
+    return userRepository.findTokenRowByUserEmail(userEmail)
+        .orElseThrow(() -> new UserNotFoundException("User not found with email: " + userEmail));
   }
 
   @Override
-  public boolean hasCurrentUserNeverLoggedIn(String userEmail) {
-    Optional<UserEntity> userOpt = userRepository.findByUserEmail(userEmail);
-    if (userOpt.isPresent()) {
-      UserEntity user = userOpt.get();
-      return user.getLastLoginAt() == null;
+  public void recordLogin(UserTokenRow user) {
+    Timestamp now = new Timestamp(System.currentTimeMillis());
+    if (user.lastLoginAt() == null) {
+      // First logins are written at once so getSessionSnapshot never reports one that already happened;
+      // repeat logins only touch memory, without opening a transaction
+      userRepository.markFirstLogin(user.userEmail(), now);
     } else {
-      throw new UserNotFoundException("User not found with email: " + userEmail);
+      lastLoginBuffer.record(user.userId(), now);
     }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+package com.xw.api.utils;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.xw.api.exception.PasswordHashingRejectedException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs the hashing work of a delegate encoder (BCrypt) on a dedicated, bounded executor so that
+ * bursts of logins cannot occupy every request thread. When the executor's queue is full the call
+ * fails straight away with a {@link PasswordHashingRejectedException} instead of waiting.
+ * Publishes {@code password.hashing.queue.wait} and {@code password.hashing.duration} timers tagged by operation.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor executor;
+  private final Timer encodeQueueWait;
+  private final Timer encodeDuration;
+  private final Timer matchesQueueWait;
+  private final Timer matchesDuration;
+
+  public BoundedPasswordEncoder(PasswordEncoder delegate, ThreadPoolExecutor executor, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.executor = executor;
+    this.encodeQueueWait = queueWaitTimer(meterRegistry, "encode");
+    this.encodeDuration = durationTimer(meterRegistry, "encode");
+    this.matchesQueueWait = queueWaitTimer(meterRegistry, "matches");
+    this.matchesDuration = durationTimer(meterRegistry, "matches");
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return submit(() -> delegate.encode(rawPassword), encodeQueueWait, encodeDuration);
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return submit(() -> delegate.matches(rawPassword, encodedPassword), matchesQueueWait, matchesDuration);
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    // Only inspects the stored hash's prefix, cheap enough for the calling thread
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  private <T> T submit(Callable<T> work, Timer queueWait, Timer duration) {
+    long submittedAt = System.nanoTime();
+    Future<T> future;
+    try {
+      future = executor.submit(() -> {
+        long startedAt = System.nanoTime();
+        queueWait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+        try {
+          return work.call();
+        } finally {
+          duration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      throw new PasswordHashingRejectedException("Password hashing is at capacity, retry shortly", e);
+    }
+
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Password hashing failed", e.getCause());
+    }
+  }
+
+  private static Timer queueWaitTimer(MeterRegistry meterRegistry, String operation) {
+    return Timer.builder("password.hashing.queue.wait")
+        .description("Time a hashing task waited in the executor queue")
+        .tag("operation", operation)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+
+  private static Timer durationTimer(MeterRegistry meterRegistry, String operation) {
+    return Timer.builder("password.hashing.duration")
+        .description("Time spent computing a password hash")
+        .tag("operation", operation)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+}
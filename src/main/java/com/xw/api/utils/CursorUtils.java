@@ -0,0 +1,115 @@
+package com.xw.api.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/* Encodes the keyset position of the last row of a page into an opaque token */
+public final class CursorUtils {
+
+  private static final String SEPARATOR = "|";
+  private static final String NULL_VALUE = "~";
+  private static final String VALUE_PREFIX = "=";
+
+  public record Cursor(Timestamp createdAt, Long id) {
+  }
+
+  // Position under an arbitrary sort: the sort it was issued for, the row's sort key (null if it had none) and id
+  public record SortCursor(String sort, String value, Long id) {
+  }
+
+  // Position inside a delta sync: the change set's upper bound and, per source, the last row returned
+  // (null once that source has no more rows)
+  public record ChangesCursor(Instant until, Position items, Position categories, Position deleted) {
+  }
+
+  // A row's change time and its key (surrogate id, or resourceId for tombstones)
+  public record Position(Instant at, String key) {
+  }
+
+  private static final String KEY_SEPARATOR = ",";
+
+  private CursorUtils() {
+  }
+
+  public static String encode(Timestamp createdAt, Long id) {
+    String raw = createdAt.toInstant().toString() + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static Cursor decode(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int separator = raw.lastIndexOf(SEPARATOR);
+      if (separator < 0) {
+        throw new IllegalArgumentException("Malformed cursor: " + token);
+      }
+      Timestamp createdAt = Timestamp.from(Instant.parse(raw.substring(0, separator)));
+      Long id = Long.valueOf(raw.substring(separator + 1));
+      return new Cursor(createdAt, id);
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Malformed cursor: " + token, e);
+    }
+  }
+
+  public static String encode(String sort, String value, Long id) {
+    String raw = sort + SEPARATOR + (value == null ? NULL_VALUE : VALUE_PREFIX + value) + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static SortCursor decodeSort(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int first = raw.indexOf(SEPARATOR);
+      int last = raw.lastIndexOf(SEPARATOR);
+      if (first < 0 || last <= first) {
+        throw new IllegalArgumentException("Malformed cursor: " + token);
+      }
+      String value = raw.substring(first + 1, last);
+      if (!value.equals(NULL_VALUE) && !value.startsWith(VALUE_PREFIX)) {
+        throw new IllegalArgumentException("Malformed cursor: " + token);
+      }
+      return new SortCursor(raw.substring(0, first), value.equals(NULL_VALUE) ? null : value.substring(1),
+          Long.valueOf(raw.substring(last + 1)));
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Malformed cursor: " + token, e);
+    }
+  }
+
+  public static String encode(ChangesCursor cursor) {
+    String raw = cursor.until() + SEPARATOR + encode(cursor.items()) + SEPARATOR + encode(cursor.categories())
+        + SEPARATOR + encode(cursor.deleted());
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static ChangesCursor decodeChanges(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      String[] parts = raw.split(Pattern.quote(SEPARATOR), -1);
+      if (parts.length != 4) {
+        throw new IllegalArgumentException("Malformed cursor: " + token);
+      }
+      return new ChangesCursor(Instant.parse(parts[0]), decodePosition(parts[1]), decodePosition(parts[2]),
+          decodePosition(parts[3]));
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Malformed cursor: " + token, e);
+    }
+  }
+
+  private static String encode(Position position) {
+    return position == null ? NULL_VALUE : position.at() + KEY_SEPARATOR + position.key();
+  }
+
+  private static Position decodePosition(String raw) {
+    if (raw.equals(NULL_VALUE)) {
+      return null;
+    }
+    int separator = raw.indexOf(KEY_SEPARATOR);
+    if (separator < 0) {
+      throw new IllegalArgumentException("Malformed position: " + raw);
+    }
+    return new Position(Instant.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+  }
+}
@@ -1,59 +1,148 @@
 package com.xw.api.utils;
 
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 import javax.crypto.SecretKey;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 
 @Component
 public class JwtUtils {
 
+  public static final String CLAIM_USER_ID = "userId";
+  public static final String CLAIM_ROLE = "role";
+  public static final String CLAIM_TOKEN_EPOCH = "epoch";
+
   @Value("${jwt.secret}")
   private String jwtSecret;
 
-  private SecretKey getSignInKey() {
+  @Value("${jwt.verified-cache.max-size:10000}")
+  private long verifiedCacheMaxSize;
+
+  private SecretKey signInKey;
+
+  private JwtParser jwtParser;
+
+  // Tokens whose signature was already checked, keyed by a SHA-256 digest of the compact token; null when disabled
+  private Cache<String, VerifiedToken> verifiedTokens;
+
+  /* The result of a successful signature check: subject, expiry and the full claim set */
+  public record VerifiedToken(String subject, Date expiration, Claims claims) {
+
+    public String userId() {
+      return claims.get(CLAIM_USER_ID, String.class);
+    }
+
+    public String role() {
+      return claims.get(CLAIM_ROLE, String.class);
+    }
+
+    /* Null for tokens issued before epochs existed */
+    public Long tokenEpoch() {
+      Number epoch = claims.get(CLAIM_TOKEN_EPOCH, Number.class);
+      return epoch == null ? null : epoch.longValue();
+    }
+  }
+
+  @PostConstruct
+  void init() {
     byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-    return Keys.hmacShaKeyFor(keyBytes);
+    signInKey = Keys.hmacShaKeyFor(keyBytes);
+    jwtParser = Jwts.parser()
+        .verifyWith(signInKey)
+        .build();
+    if (verifiedCacheMaxSize <= 0) {
+      return;
+    }
+    verifiedTokens = Caffeine.newBuilder()
+        .maximumSize(verifiedCacheMaxSize)
+        .expireAfter(new Expiry<String, VerifiedToken>() {
+          @Override
+          public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long millisLeft = value.expiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millisLeft, 0));
+          }
+
+          @Override
+          public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+
+          @Override
+          public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .build();
   }
-  
-  public String generateToken(UserDetails userDetails) {
+
+  /**
+   * Issues a token whose claims are enough to authenticate later requests without a user lookup:
+   * the email as subject plus the user's public id, role and current token epoch.
+   */
+  public String generateToken(String userEmail, String userId, String role, long tokenEpoch) {
     return Jwts.builder()
-    .claims(new HashMap<>())
-    .subject(userDetails.getUsername())
-    .issuedAt(new java.util.Date(System.currentTimeMillis()))
-    .expiration(new java.util.Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
-    .signWith(getSignInKey(), Jwts.SIG.HS256)
+    .claim(CLAIM_USER_ID, userId)
+    .claim(CLAIM_ROLE, role)
+    .claim(CLAIM_TOKEN_EPOCH, tokenEpoch)
+    .subject(userEmail)
+    .issuedAt(new Date(System.currentTimeMillis()))
+    .expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
+    .signWith(signInKey, Jwts.SIG.HS256)
     .compact();
   }
 
-  public Boolean validateToken(String token, UserDetails userDetails) {
-    final String username = extractUsername(token);
-    return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+  /**
+   * Verifies the signature and expiry of a token once and returns its subject, expiry and claims.
+   * Repeat calls with the same token are answered from the verified-token cache until the token expires
+   * (unless jwt.verified-cache.max-size is 0).
+   * Throws a {@link io.jsonwebtoken.JwtException} when the token is malformed, forged or expired.
+   */
+  public VerifiedToken verify(String token) {
+    if (verifiedTokens == null) {
+      return parse(token);
+    }
+    String digest = digest(token);
+    VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+    if (cached != null) {
+      return cached;
+    }
+    VerifiedToken verified = parse(token);
+    // Tokens without an expiry are still accepted but never cached, so they are always re-verified
+    if (verified.expiration() != null) {
+      verifiedTokens.put(digest, verified);
+    }
+    return verified;
   }
 
-  public String extractUsername(String token) {
-    return Jwts.parser()
-    .verifyWith(getSignInKey())
-    .build()
-    .parseSignedClaims(token)
-    .getPayload()
-    .getSubject();
+  private VerifiedToken parse(String token) {
+    Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+    return new VerifiedToken(claims.getSubject(), claims.getExpiration(), claims);
   }
 
-  private boolean isTokenExpired(String token) {
-    java.util.Date expiration = Jwts.parser()
-    .verifyWith(getSignInKey())
-    .build()
-    .parseSignedClaims(token)
-    .getPayload()
-    .getExpiration();
-    return expiration.before(new java.util.Date());
+  private String digest(String token) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
   }
 }
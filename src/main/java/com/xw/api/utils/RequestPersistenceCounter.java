@@ -0,0 +1,50 @@
+package com.xw.api.utils;
+
+/*
+ * Per-thread tally of JDBC statements and entity loads, fed by Hibernate hooks and read back by
+ * PersistenceMetricsFilter once the request completes. Outside a started scope the hooks are no-ops.
+ */
+public final class RequestPersistenceCounter {
+
+  private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+  public static final class Counts {
+    private long statements;
+    private long entityLoads;
+
+    public long statements() {
+      return statements;
+    }
+
+    public long entityLoads() {
+      return entityLoads;
+    }
+  }
+
+  private RequestPersistenceCounter() {
+  }
+
+  public static Counts start() {
+    Counts counts = new Counts();
+    CURRENT.set(counts);
+    return counts;
+  }
+
+  public static void stop() {
+    CURRENT.remove();
+  }
+
+  public static void statementPrepared() {
+    Counts counts = CURRENT.get();
+    if (counts != null) {
+      counts.statements++;
+    }
+  }
+
+  public static void entityLoaded() {
+    Counts counts = CURRENT.get();
+    if (counts != null) {
+      counts.entityLoads++;
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.xw.api.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/* Helpers for in-memory state that must only reflect committed database changes */
+public final class TransactionUtils {
+
+  private TransactionUtils() {
+  }
+
+  /* Runs the action once the surrounding transaction commits (never on rollback), or at once outside a transaction */
+  public static void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          action.run();
+        }
+      });
+    } else {
+      action.run();
+    }
+  }
+}
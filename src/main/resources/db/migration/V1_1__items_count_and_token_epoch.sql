@@ -0,0 +1,9 @@
+-- Columns mapped since the baseline. IF NOT EXISTS: databases last started on ddl-auto=update with the
+-- newer mapping already have them.
+
+-- CategoryEntity.itemsCount: maintained by item writes; existing rows are backfilled from the items table
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS items_count INTEGER DEFAULT 0 NOT NULL;
+UPDATE categories c SET items_count = (SELECT COUNT(*) FROM items i WHERE i.category_id = c.id);
+
+-- UserEntity.tokenEpoch: tokens issued under an older epoch are rejected; existing users start at 0
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_epoch BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,52 @@
+-- Baseline: the categories, items and users tables as Hibernate (ddl-auto=update) created them before
+-- migrations were introduced. Existing databases are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and skip this script; columns added since then live in later versions.
+
+CREATE SEQUENCE categories_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE items_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE users_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE categories (
+    id          BIGINT       NOT NULL,
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    category_id VARCHAR(255) NOT NULL,
+    bg_color    VARCHAR(255),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT pk_categories PRIMARY KEY (id),
+    CONSTRAINT uk_categories_name UNIQUE (name),
+    CONSTRAINT uk_categories_category_id UNIQUE (category_id),
+    CONSTRAINT uk_categories_bg_color UNIQUE (bg_color)
+);
+
+CREATE TABLE items (
+    id          BIGINT        NOT NULL,
+    name        VARCHAR(255)  NOT NULL,
+    description VARCHAR(255),
+    item_id     VARCHAR(255)  NOT NULL,
+    category_id BIGINT        NOT NULL,
+    price       NUMERIC(38,2),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT pk_items PRIMARY KEY (id),
+    CONSTRAINT uk_items_name UNIQUE (name),
+    CONSTRAINT uk_items_item_id UNIQUE (item_id),
+    CONSTRAINT fk_items_category FOREIGN KEY (category_id) REFERENCES categories (id) ON DELETE RESTRICT
+);
+
+CREATE TABLE users (
+    id            BIGINT       NOT NULL,
+    user_id       VARCHAR(255) NOT NULL,
+    username      VARCHAR(255) NOT NULL,
+    password      VARCHAR(255),
+    role          VARCHAR(255),
+    user_email    VARCHAR(255) NOT NULL,
+    created_at    TIMESTAMP(6),
+    updated_at    TIMESTAMP(6),
+    last_login_at TIMESTAMP(6),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_user_id UNIQUE (user_id),
+    CONSTRAINT uk_users_user_email UNIQUE (user_email),
+    CONSTRAINT ck_users_role CHECK (role IN ('ROLE_ROOT', 'ROLE_ADMIN', 'ROLE_USER'))
+);
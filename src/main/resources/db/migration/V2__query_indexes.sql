@@ -0,0 +1,22 @@
+-- Indexes for the repository queries. Lookups by items.item_id/name, categories.category_id/name/bg_color
+-- and users.user_id/user_email are already served by the unique constraints.
+-- IF NOT EXISTS: databases baselined from ddl-auto=update may already have the two items indexes.
+
+-- ItemRepository.findFirstPage/findPageAfter and streamAll: keyset order over the whole catalog
+CREATE INDEX IF NOT EXISTS idx_items_created_at_id ON items (created_at, id);
+
+-- ItemRepository.findFirstPageByCategoryId/findPageAfterByCategoryId and countByCategory;
+-- also the foreign key check when a category is deleted
+CREATE INDEX IF NOT EXISTS idx_items_category_id_created_at_id ON items (category_id, created_at, id);
+
+-- UserRepository.findByUsername
+CREATE INDEX IF NOT EXISTS idx_users_username ON users (username);
+
+-- UserRepository.existsAdminUser/existsRootUser, checked at every startup
+CREATE INDEX IF NOT EXISTS idx_users_role ON users (role);
+
+-- Databases created with IDENTITY ids still increment their id sequences by 1; the entities allocate ids
+-- in blocks of 50 (no-op on databases created from V1)
+ALTER SEQUENCE categories_id_seq INCREMENT BY 50;
+ALTER SEQUENCE items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
@@ -0,0 +1,11 @@
+-- Indexes for ItemFilterRepository.findFiltered (GET /items). Each sort key is indexed alone and behind
+-- category_id, so a filter on one column with a sort on it (or a category plus any sort) is one index range scan.
+-- created_at is covered by idx_items_created_at_id and idx_items_category_id_created_at_id (V2),
+-- name by the unique constraint uk_items_name.
+
+CREATE INDEX idx_items_price_id ON items (price, id);
+CREATE INDEX idx_items_updated_at_id ON items (updated_at, id);
+
+CREATE INDEX idx_items_category_id_price_id ON items (category_id, price, id);
+CREATE INDEX idx_items_category_id_updated_at_id ON items (category_id, updated_at, id);
+CREATE INDEX idx_items_category_id_name ON items (category_id, name);
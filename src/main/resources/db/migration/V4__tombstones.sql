@@ -0,0 +1,16 @@
+-- Deletions for the delta sync (GET /items/changes): one row per deleted item or category, keyed by its public id,
+-- written in the deleting transaction and compacted after the retention window (app.sync.tombstones.retention).
+
+CREATE TABLE tombstones (
+    resource_id VARCHAR(255) NOT NULL,
+    resource    VARCHAR(16)  NOT NULL,
+    deleted_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_tombstones PRIMARY KEY (resource_id),
+    CONSTRAINT ck_tombstones_resource CHECK (resource IN ('item', 'category'))
+);
+
+-- TombstoneRepository delta pages and compaction
+CREATE INDEX idx_tombstones_deleted_at_resource_id ON tombstones (deleted_at, resource_id);
+
+-- CategoryRepository delta pages; items are covered by idx_items_updated_at_id (V3)
+CREATE INDEX idx_categories_updated_at_id ON categories (updated_at, id);
@@ -0,0 +1,7 @@
+-- Optimistic concurrency: a row version for every entity that is updated through read-modify-write (@Version).
+-- Hibernate increments it in the UPDATE and matches the version that was read in its WHERE clause; the API serves
+-- it as the ETag that PUT requests name in If-Match. Existing rows start at version 0.
+
+ALTER TABLE items ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE categories ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE users ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
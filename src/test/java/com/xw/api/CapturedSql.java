@@ -0,0 +1,21 @@
+package com.xw.api;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/* Records every SQL statement Hibernate prepares; enable it with @SpringBootTest(properties = CapturedSql.PROPERTY) */
+public class CapturedSql implements StatementInspector {
+
+  public static final String PROPERTY =
+      "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.xw.api.CapturedSql";
+
+  public static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+  @Override
+  public String inspect(String sql) {
+    STATEMENTS.add(sql);
+    return sql;
+  }
+}
@@ -0,0 +1,68 @@
+package com.xw.api;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.xw.api.config.CacheConfig;
+import com.xw.api.dto.CategoryRequest;
+import com.xw.api.repository.CategoryRepository;
+import com.xw.api.repository.ItemRepository;
+import com.xw.api.repository.projection.UserTokenRow;
+import com.xw.api.service.CategoryService;
+import com.xw.api.service.UserService;
+import com.xw.api.utils.JwtUtils;
+
+/*
+ * Setup shared by the integration tests: an empty catalog, categories to put items in and a superuser token.
+ * A plain component so it is scanned into every test context without changing how contexts are cached.
+ */
+@Component
+public class TestFixtures {
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private CategoryService categoryService;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private JwtUtils jwtUtils;
+
+  @Value("${app.superuser.email}")
+  private String superuserEmail;
+
+  /* Deletes every item and category, and drops the category caches that the repository deletes bypass */
+  public void clearCatalog() {
+    itemRepository.deleteAll();
+    categoryRepository.deleteAll();
+    cacheManager.getCache(CacheConfig.CATEGORIES).clear();
+    cacheManager.getCache(CacheConfig.CATEGORY_LIST).clear();
+  }
+
+  /* Empties the catalog and creates a single "tools" category; returns its id */
+  public String resetCatalog() {
+    clearCatalog();
+    return createCategory("tools");
+  }
+
+  public String createCategory(String name) {
+    return categoryService.createCategory(CategoryRequest.builder().name(name).build()).getCategoryId();
+  }
+
+  /* A valid token for the superuser created at startup, as issued by /login */
+  public String superuserToken() {
+    UserTokenRow user = userService.getTokenRow(superuserEmail);
+    return jwtUtils.generateToken(user.userEmail(), user.userId(), user.role().name(), user.tokenEpoch());
+  }
+}
@@ -0,0 +1,139 @@
+package com.xw.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.xw.api.dto.CategoryRequest;
+import com.xw.api.dto.ItemRequest;
+import com.xw.api.repository.projection.UserTokenRow;
+import com.xw.api.service.CategoryService;
+import com.xw.api.service.ItemService;
+import com.xw.api.service.UserService;
+import com.xw.api.utils.JwtUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Measures throughput and latency of the JDBC-backed item listing on Tomcat platform threads and on
+ * virtual threads, with the default Tomcat and Hikari pool sizes. Reports the numbers; it does not rank the modes.
+ * Slow, so it only runs when asked for: {@code ./mvnw test -Dloadtest=true -Dtest=VirtualThreadLoadTests}
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class VirtualThreadLoadTests {
+
+  private static final int CATALOG_SIZE = 500;
+  private static final int PAGE_SIZE = 50;
+  private static final int CLIENT_CONCURRENCY = 200;
+  private static final int REQUESTS = 4000;
+
+  private record Result(double requestsPerSecond, long p50Millis, long p99Millis) {
+  }
+
+  @Test
+  void itemListingUnderConcurrentLoad() throws Exception {
+    for (boolean virtualThreads : new boolean[] {false, true}) {
+      Result result = measure(virtualThreads);
+      log.info("GET /items/all?size={} over {} client connections on {} threads: {} req/s, p50 {} ms, p99 {} ms",
+          PAGE_SIZE, CLIENT_CONCURRENCY, virtualThreads ? "virtual" : "platform",
+          Math.round(result.requestsPerSecond()), result.p50Millis(), result.p99Millis());
+    }
+  }
+
+  private Result measure(boolean virtualThreads) throws Exception {
+    String mode = virtualThreads ? "virtual" : "platform";
+    // Command-line arguments outrank src/test/resources/application.properties; each mode gets its own database
+    try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ApiApplication.class).run(
+        "--spring.threads.virtual.enabled=" + virtualThreads,
+        "--server.port=0",
+        "--spring.jpa.properties.hibernate.generate_statistics=false",
+        "--spring.datasource.url=jdbc:h2:mem:loadtest_" + mode + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE")) {
+      seedCatalog(context);
+      int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+      String email = context.getEnvironment().getRequiredProperty("app.superuser.email");
+      UserTokenRow user = context.getBean(UserService.class).getTokenRow(email);
+      String token = context.getBean(JwtUtils.class)
+          .generateToken(user.userEmail(), user.userId(), user.role().name(), user.tokenEpoch());
+      HttpRequest request = HttpRequest.newBuilder(
+              URI.create("http://localhost:" + port + "/items/all?size=" + PAGE_SIZE))
+          .header("Authorization", "Bearer " + token)
+          .build();
+
+      // Warm up JIT, connection pools and caches before timing
+      runRequests(request, REQUESTS / 4, new long[REQUESTS / 4]);
+
+      long[] latencies = new long[REQUESTS];
+      long started = System.nanoTime();
+      int succeeded = runRequests(request, REQUESTS, latencies);
+      double seconds = (System.nanoTime() - started) / 1e9;
+      assertEquals(REQUESTS, succeeded, mode + " mode answered some requests with an error");
+
+      Arrays.sort(latencies);
+      return new Result(REQUESTS / seconds,
+          latencies[REQUESTS / 2] / 1_000_000, latencies[REQUESTS * 99 / 100] / 1_000_000);
+    }
+  }
+
+  private static void seedCatalog(ConfigurableApplicationContext context) {
+    String categoryId = context.getBean(CategoryService.class)
+        .createCategory(CategoryRequest.builder().name("load").build())
+        .getCategoryId();
+    List<ItemRequest> items = new ArrayList<>(CATALOG_SIZE);
+    for (int i = 0; i < CATALOG_SIZE; i++) {
+      items.add(ItemRequest.builder()
+          .name("load-item-" + i)
+          .description("Load test item " + i)
+          .price(BigDecimal.valueOf(i, 2))
+          .categoryId(categoryId)
+          .build());
+    }
+    context.getBean(ItemService.class).importItems(items);
+  }
+
+  private int runRequests(HttpRequest request, int total, long[] latencies) throws Exception {
+    Semaphore inFlight = new Semaphore(CLIENT_CONCURRENCY);
+    AtomicInteger succeeded = new AtomicInteger();
+    try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient httpClient = HttpClient.newBuilder().executor(clients).build()) {
+      List<Future<?>> calls = new ArrayList<>(total);
+      for (int i = 0; i < total; i++) {
+        int slot = i;
+        inFlight.acquire();
+        calls.add(clients.submit(() -> {
+          long sent = System.nanoTime();
+          try {
+            if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+              succeeded.incrementAndGet();
+            }
+          } finally {
+            latencies[slot] = System.nanoTime() - sent;
+            inFlight.release();
+          }
+          return null;
+        }));
+      }
+      for (Future<?> call : calls) {
+        call.get();
+      }
+    }
+    return succeeded.get();
+  }
+}
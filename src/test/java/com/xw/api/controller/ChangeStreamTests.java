@@ -0,0 +1,119 @@
+package com.xw.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.xw.api.TestFixtures;
+import com.xw.api.dto.ItemRequest;
+import com.xw.api.dto.ItemResponse;
+import com.xw.api.service.ItemService;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ChangeStreamTests {
+
+  private record Event(String id, String name, String data) {
+  }
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private TestFixtures fixtures;
+
+  @Autowired
+  private ItemService itemService;
+
+  private final HttpClient client = HttpClient.newHttpClient();
+  private String token;
+  private String categoryId;
+
+  @BeforeEach
+  void setUp() {
+    categoryId = fixtures.resetCatalog();
+    token = fixtures.superuserToken();
+  }
+
+  @Test
+  void committedChangesAreStreamedAndResumable() throws Exception {
+    ItemResponse drill;
+    Event created;
+    try (BufferedReader stream = open(null)) {
+      drill = itemService.createItem(item("drill"));
+      itemService.updateItem(drill.getItemId(), ItemRequest.builder().price(BigDecimal.TEN).build(), null);
+
+      created = next(stream);
+      Event updated = next(stream);
+      assertEquals("item.created", created.name());
+      assertTrue(created.data().contains("\"resourceId\":\"" + drill.getItemId() + "\""), created.data());
+      assertEquals("item.updated", updated.name());
+      assertTrue(updated.data().contains("\"price\":10"), updated.data());
+    }
+
+    // Changes made while disconnected are replayed after the last event the client saw
+    itemService.deleteItem(drill.getItemId());
+    try (BufferedReader stream = open(created.id())) {
+      assertEquals("item.updated", next(stream).name());
+      assertEquals("item.deleted", next(stream).name());
+    }
+  }
+
+  private ItemRequest item(String name) {
+    return ItemRequest.builder().name(name).categoryId(categoryId).build();
+  }
+
+  private BufferedReader open(String lastEventId) throws IOException, InterruptedException {
+    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/changes/stream"))
+        .header("Authorization", "Bearer " + token)
+        .header("Accept", "text/event-stream");
+    if (lastEventId != null) {
+      request.header("Last-Event-ID", lastEventId);
+    }
+    HttpResponse<InputStream> response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+    assertEquals(200, response.statusCode());
+    assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/event-stream"));
+    return new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8));
+  }
+
+  // Reads one event, skipping heartbeat comments
+  private static Event next(BufferedReader stream) throws IOException {
+    List<String> fields = new ArrayList<>();
+    String line;
+    while ((line = stream.readLine()) != null) {
+      if (line.isEmpty()) {
+        if (!fields.isEmpty()) {
+          break;
+        }
+      } else if (!line.startsWith(":")) {
+        fields.add(line);
+      }
+    }
+    return new Event(field(fields, "id:"), field(fields, "event:"), field(fields, "data:"));
+  }
+
+  private static String field(List<String> fields, String prefix) {
+    return fields.stream()
+        .filter(field -> field.startsWith(prefix))
+        .map(field -> field.substring(prefix.length()))
+        .findFirst()
+        .orElse(null);
+  }
+}
@@ -0,0 +1,95 @@
+package com.xw.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.xw.api.TestFixtures;
+import com.xw.api.dto.ItemRequest;
+import com.xw.api.service.ItemService;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ConditionalGetTests {
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private TestFixtures fixtures;
+
+  @Autowired
+  private ItemService itemService;
+
+  private final HttpClient client = HttpClient.newHttpClient();
+  private String token;
+  private String categoryId;
+
+  @BeforeEach
+  void setUp() {
+    categoryId = fixtures.resetCatalog();
+    token = fixtures.superuserToken();
+  }
+
+  @Test
+  void itemIsNotModifiedUntilItChanges() throws Exception {
+    String itemId = createItem("hammer");
+
+    HttpResponse<String> first = get("/items/" + itemId, null);
+    assertEquals(200, first.statusCode());
+    String etag = first.headers().firstValue("ETag").orElseThrow();
+
+    HttpResponse<String> revalidated = get("/items/" + itemId, etag);
+    assertEquals(304, revalidated.statusCode());
+    assertEquals("", revalidated.body());
+
+    itemService.updateItem(itemId, ItemRequest.builder().price(BigDecimal.TEN).build(), null);
+
+    HttpResponse<String> changed = get("/items/" + itemId, etag);
+    assertEquals(200, changed.statusCode());
+    assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+  }
+
+  @Test
+  void categoryListChangesWhenAnItemIsAdded() throws Exception {
+    createItem("hammer");
+    String etag = get("/categories/all", null).headers().firstValue("ETag").orElseThrow();
+
+    assertEquals(304, get("/categories/all", etag).statusCode());
+
+    // The list carries item counts, so a new item must invalidate it
+    createItem("saw");
+
+    HttpResponse<String> changed = get("/categories/all", etag);
+    assertEquals(200, changed.statusCode());
+    assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+  }
+
+  private String createItem(String name) {
+    return itemService.createItem(ItemRequest.builder()
+        .name(name)
+        .price(BigDecimal.ONE)
+        .categoryId(categoryId)
+        .build()).getItemId();
+  }
+
+  private HttpResponse<String> get(String path, String ifNoneMatch) throws IOException, InterruptedException {
+    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+        .header("Authorization", "Bearer " + token);
+    if (ifNoneMatch != null) {
+      request.header("If-None-Match", ifNoneMatch);
+    }
+    return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+  }
+}
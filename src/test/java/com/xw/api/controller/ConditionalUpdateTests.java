@@ -0,0 +1,181 @@
+package com.xw.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xw.api.CapturedSql;
+import com.xw.api.TestFixtures;
+import com.xw.api.dto.ItemFilter;
+import com.xw.api.dto.ItemPriceChangeRequest;
+import com.xw.api.dto.ItemRequest;
+import com.xw.api.dto.ItemResponse;
+import com.xw.api.service.ItemService;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = CapturedSql.PROPERTY)
+class ConditionalUpdateTests {
+
+  private record Versioned(ItemResponse item, String etag) {
+  }
+
+  private static final int WRITERS = 4;
+  private static final int INCREMENTS = 10;
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private TestFixtures fixtures;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private ItemService itemService;
+
+  private final HttpClient client = HttpClient.newHttpClient();
+  private String token;
+  private String categoryId;
+  private String itemId;
+
+  @BeforeEach
+  void setUp() {
+    categoryId = fixtures.resetCatalog();
+    itemId = itemService.createItem(ItemRequest.builder()
+        .name("drill").price(BigDecimal.ZERO).categoryId(categoryId).build()).getItemId();
+    token = fixtures.superuserToken();
+  }
+
+  @Test
+  void staleIfMatchFailsThePrecondition() throws Exception {
+    Versioned read = get();
+    HttpResponse<String> first = put(ItemRequest.builder().name("cordless drill").build(), read.etag());
+    assertEquals(200, first.statusCode());
+    String written = first.headers().firstValue("ETag").orElseThrow();
+    assertNotEquals(read.etag(), written);
+    assertEquals(written, get().etag());
+
+    // A second client still holding the first ETag
+    assertEquals(412, put(ItemRequest.builder().name("hammer drill").build(), read.etag()).statusCode());
+    assertEquals("cordless drill", get().item().getName());
+
+    // Set-based updates move the version too
+    itemService.changePrices(ItemPriceChangeRequest.builder()
+        .filter(ItemFilter.builder().categoryId(categoryId).build())
+        .amount(BigDecimal.ONE)
+        .build());
+    assertEquals(412, put(ItemRequest.builder().price(BigDecimal.TEN).build(), written).statusCode());
+
+    // Without If-Match the update is unconditional
+    assertEquals(200, put(ItemRequest.builder().price(BigDecimal.TEN).build(), null).statusCode());
+    assertEquals(412, put(ItemRequest.builder().price(BigDecimal.TEN).build(), "\"not-a-version\"").statusCode());
+  }
+
+  @Test
+  void concurrentConditionalUpdatesLoseNothingAndTakeNoLocks() throws Exception {
+    CapturedSql.STATEMENTS.clear();
+    ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+    try {
+      List<Future<?>> done = new ArrayList<>();
+      for (int w = 0; w < WRITERS; w++) {
+        done.add(writers.submit(() -> {
+          for (int i = 0; i < INCREMENTS; i++) {
+            // Read, add one, write back only if nobody else wrote in between; otherwise read again
+            while (true) {
+              Versioned read = get();
+              HttpResponse<String> response = put(
+                  ItemRequest.builder().price(read.item().getPrice().add(BigDecimal.ONE)).build(), read.etag());
+              if (response.statusCode() == 200) {
+                break;
+              }
+              assertEquals(412, response.statusCode(), response.body());
+            }
+          }
+          return null;
+        }));
+      }
+      for (Future<?> writer : done) {
+        writer.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      writers.shutdownNow();
+    }
+
+    Versioned result = get();
+    assertEquals(0, BigDecimal.valueOf(WRITERS * INCREMENTS).compareTo(result.item().getPrice()));
+    assertTrue(result.etag().startsWith("W/\"" + WRITERS * INCREMENTS + "."), result.etag());
+    // Conflicts were detected by the versioned UPDATE, never waited out behind a row lock taken by a read
+    assertTrue(CapturedSql.STATEMENTS.stream()
+        .map(sql -> sql.toLowerCase(Locale.ROOT))
+        .filter(sql -> sql.startsWith("update items"))
+        .allMatch(sql -> sql.contains("version=?")), "every item UPDATE checks the version");
+    assertTrue(CapturedSql.STATEMENTS.stream().noneMatch(sql -> sql.toLowerCase(Locale.ROOT).contains("for update")),
+        "no statement takes a pessimistic lock");
+  }
+
+  @Test
+  void browserClientsMaySendValidatorsAndReadTheResponseHeaders() throws Exception {
+    HttpResponse<String> preflight = client.send(HttpRequest.newBuilder(
+            URI.create("http://localhost:" + port + "/admin/items/" + itemId))
+        .method("OPTIONS", HttpRequest.BodyPublishers.noBody())
+        .header("Origin", "http://localhost:5173")
+        .header("Access-Control-Request-Method", "PUT")
+        .header("Access-Control-Request-Headers", "authorization, content-type, if-match, if-none-match")
+        .build(), HttpResponse.BodyHandlers.ofString());
+    assertEquals(200, preflight.statusCode());
+    String allowed = preflight.headers().firstValue("Access-Control-Allow-Headers").orElseThrow()
+        .toLowerCase(Locale.ROOT);
+    assertTrue(allowed.contains("if-match") && allowed.contains("if-none-match"), allowed);
+
+    HttpResponse<String> read = client.send(request("/items/" + itemId).header("Origin", "http://localhost:5173")
+        .GET().build(), HttpResponse.BodyHandlers.ofString());
+    assertEquals(200, read.statusCode());
+    String exposed = read.headers().firstValue("Access-Control-Expose-Headers").orElseThrow();
+    assertTrue(exposed.contains("ETag") && exposed.contains("Last-Modified") && exposed.contains("Retry-After"),
+        exposed);
+  }
+
+  private Versioned get() throws Exception {
+    HttpResponse<String> response = client.send(request("/items/" + itemId).GET().build(),
+        HttpResponse.BodyHandlers.ofString());
+    assertEquals(200, response.statusCode());
+    return new Versioned(objectMapper.readValue(response.body(), ItemResponse.class),
+        response.headers().firstValue("ETag").orElseThrow());
+  }
+
+  private HttpResponse<String> put(ItemRequest body, String ifMatch) throws Exception {
+    HttpRequest.Builder request = request("/admin/items/" + itemId)
+        .header("Content-Type", "application/json")
+        .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+    if (ifMatch != null) {
+      request.header("If-Match", ifMatch);
+    }
+    return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private HttpRequest.Builder request(String path) {
+    return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+        .header("Authorization", "Bearer " + token)
+        .header("Accept", "application/json");
+  }
+}
@@ -0,0 +1,134 @@
+package com.xw.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.xw.api.TestFixtures;
+import com.xw.api.dto.CategoryResponse;
+import com.xw.api.dto.ItemPageResponse;
+import com.xw.api.dto.ItemRequest;
+import com.xw.api.service.ItemService;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "server.compression.enabled=true",
+    "server.compression.mime-types=application/json,application/cbor,application/x-jackson-smile",
+    "server.compression.min-response-size=2KB"
+})
+class ContentNegotiationTests {
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private TestFixtures fixtures;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private ItemService itemService;
+
+  private final HttpClient client = HttpClient.newHttpClient();
+  private String token;
+
+  @BeforeEach
+  void setUp() {
+    String categoryId = fixtures.resetCatalog();
+    List<ItemRequest> items = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      items.add(ItemRequest.builder()
+          .name("item-" + i)
+          .description("Description of item " + i)
+          .price(BigDecimal.valueOf(i, 2))
+          .categoryId(categoryId)
+          .build());
+    }
+    itemService.importItems(items);
+    token = fixtures.superuserToken();
+  }
+
+  @Test
+  void binaryEncodingsCarryTheSamePageAsJson() throws Exception {
+    HttpResponse<byte[]> json = get("/items/all", "application/json", false, null);
+    HttpResponse<byte[]> cbor = get("/items/all", "application/cbor", false, null);
+    HttpResponse<byte[]> smile = get("/items/all", "application/x-jackson-smile", false, null);
+    HttpResponse<byte[]> unspecified = get("/items/all", null, false, null);
+
+    ItemPageResponse expected = objectMapper.readValue(json.body(), ItemPageResponse.class);
+    assertEquals(40, expected.getItems().size());
+    assertEquals(expected, objectMapper.copyWith(new CBORFactory()).readValue(cbor.body(), ItemPageResponse.class));
+    assertEquals(expected, objectMapper.copyWith(new SmileFactory()).readValue(smile.body(), ItemPageResponse.class));
+    assertTrue(cbor.body().length < json.body().length);
+    assertTrue(smile.body().length < json.body().length);
+    assertTrue(unspecified.headers().firstValue("Content-Type").orElseThrow().startsWith("application/json"));
+    assertTrue(headerValues(cbor, "Vary").contains("accept"));
+  }
+
+  @Test
+  void onlyResponsesAboveTheThresholdAreGzipped() throws Exception {
+    HttpResponse<byte[]> categories = get("/categories/all", "application/cbor", true, null);
+    HttpResponse<byte[]> items = get("/items/all", "application/json", true, null);
+
+    // Below the threshold: sent as is with its length, and still revalidated by its (weak) ETag
+    assertTrue(categories.headers().firstValue("Content-Encoding").isEmpty());
+    assertEquals(categories.body().length, categories.headers().firstValueAsLong("Content-Length").orElseThrow());
+    String etag = categories.headers().firstValue("ETag").orElseThrow();
+    assertTrue(etag.startsWith("W/"), etag);
+    List<CategoryResponse> decoded = objectMapper.copyWith(new CBORFactory())
+        .readValue(categories.body(), new TypeReference<List<CategoryResponse>>() { });
+    assertEquals(40, decoded.get(0).getItemsCount());
+    assertEquals(304, get("/categories/all", "application/cbor", true, etag).statusCode());
+
+    assertEquals("gzip", items.headers().firstValue("Content-Encoding").orElseThrow());
+    ItemPageResponse page = objectMapper.readValue(new GZIPInputStream(
+        new ByteArrayInputStream(items.body())), ItemPageResponse.class);
+    assertEquals(40, page.getItems().size());
+  }
+
+  private static List<String> headerValues(HttpResponse<?> response, String name) {
+    List<String> values = new ArrayList<>();
+    for (String value : response.headers().allValues(name)) {
+      for (String part : value.split(",")) {
+        values.add(part.trim().toLowerCase());
+      }
+    }
+    return values;
+  }
+
+  private HttpResponse<byte[]> get(String path, String accept, boolean gzip, String ifNoneMatch)
+      throws IOException, InterruptedException {
+    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+        .header("Authorization", "Bearer " + token);
+    if (accept != null) {
+      request.header("Accept", accept);
+    }
+    if (gzip) {
+      request.header("Accept-Encoding", "gzip");
+    }
+    if (ifNoneMatch != null) {
+      request.header("If-None-Match", ifNoneMatch);
+    }
+    return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+  }
+}
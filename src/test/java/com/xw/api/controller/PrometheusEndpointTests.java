@@ -0,0 +1,42 @@
+package com.xw.api.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.xw.api.TestFixtures;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class PrometheusEndpointTests {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private TestFixtures fixtures;
+
+  @Test
+  void scrapeIncludesEndpointRepositoryPoolAndPerRequestHibernateMeters() throws Exception {
+    String token = fixtures.superuserToken();
+    mockMvc.perform(get("/categories/all").header("Authorization", "Bearer " + token))
+        .andExpect(status().isOk());
+
+    mockMvc.perform(get("/actuator/prometheus"))
+        .andExpect(status().isOk())
+        .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+        .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket")))
+        .andExpect(content().string(containsString("hikaricp_connections_active")))
+        .andExpect(content().string(containsString("hibernate_statements_total")))
+        .andExpect(content().string(containsString("hibernate_request_statements_count{method=\"GET\",uri=\"/categories/all\"}")));
+  }
+}
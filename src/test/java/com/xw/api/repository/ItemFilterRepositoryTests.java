@@ -0,0 +1,188 @@
+package com.xw.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.xw.api.CapturedSql;
+import com.xw.api.TestFixtures;
+import com.xw.api.common.ItemSortField;
+import com.xw.api.dto.ItemFilter;
+import com.xw.api.dto.ItemPageResponse;
+import com.xw.api.dto.ItemRequest;
+import com.xw.api.dto.ItemResponse;
+import com.xw.api.service.ItemService;
+
+@SpringBootTest(properties = CapturedSql.PROPERTY)
+class ItemFilterRepositoryTests {
+
+  @Autowired
+  private TestFixtures fixtures;
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  @Autowired
+  private ItemService itemService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private String tools;
+  private String toys;
+
+  @BeforeEach
+  void setUp() {
+    fixtures.clearCatalog();
+    tools = fixtures.createCategory("tools");
+    toys = fixtures.createCategory("toys");
+    List<ItemRequest> items = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      items.add(ItemRequest.builder()
+          .name((i % 2 == 0 ? "drill_" : "drillbit") + i)
+          // Repeated prices force the id tie-break; every fifth item has none
+          .price(i % 5 == 0 ? null : BigDecimal.valueOf(i % 7))
+          .categoryId(i % 3 == 0 ? toys : tools)
+          .build());
+    }
+    itemService.importItems(items);
+  }
+
+  @Test
+  void everyFilterCombinationUsesAnIndex() {
+    Instant from = Instant.parse("2020-01-01T00:00:00Z");
+    Instant to = Instant.parse("2100-01-01T00:00:00Z");
+    Map<String, ItemFilter> filters = Map.of(
+        "none", new ItemFilter(),
+        "category", ItemFilter.builder().categoryId(tools).build(),
+        "price range", ItemFilter.builder().minPrice(BigDecimal.ONE).maxPrice(BigDecimal.TEN).build(),
+        "name prefix", ItemFilter.builder().namePrefix("drill_").build(),
+        "created range", ItemFilter.builder().createdFrom(from).createdTo(to).build(),
+        "updated range", ItemFilter.builder().updatedFrom(from).updatedTo(to).build(),
+        "category and price", ItemFilter.builder().categoryId(tools).minPrice(BigDecimal.ONE).build(),
+        "category and name", ItemFilter.builder().categoryId(tools).namePrefix("drill").build(),
+        "category and created", ItemFilter.builder().categoryId(tools).createdFrom(from).build(),
+        "all", ItemFilter.builder().categoryId(tools).minPrice(BigDecimal.ONE).maxPrice(BigDecimal.TEN)
+            .namePrefix("drill").createdFrom(from).createdTo(to).updatedFrom(from).updatedTo(to).build());
+
+    for (Map.Entry<String, ItemFilter> filter : filters.entrySet()) {
+      for (ItemSortField sort : ItemSortField.values()) {
+        for (boolean descending : new boolean[] { false, true }) {
+          for (ItemFilterRepository.After after : positionsFor(sort)) {
+            CapturedSql.STATEMENTS.clear();
+            itemRepository.findFiltered(filter.getValue(), sort, descending, after, 10);
+            String plan = explain(CapturedSql.STATEMENTS.get(0));
+            String combination = filter.getKey() + " / " + sort + (descending ? " desc" : "") + " / "
+                + (after == null ? "first page" : "after " + after.value());
+            assertFalse(plan.contains("tableScan"), combination + " scans a table:\n" + plan);
+            assertTrue(itemsAccess(plan).startsWith("/* public."), combination + " reads items without an index:\n" + plan);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void pagesFollowTheRequestedSortWithoutGapsOrDuplicates() {
+    List<ItemResponse> all = itemService.findItems(new ItemFilter(), null, null, 100).getItems();
+    Comparator<BigDecimal> nullsHigh = Comparator.nullsLast(Comparator.naturalOrder());
+
+    assertEquals(sorted(all, Comparator.comparing(ItemResponse::getPrice, nullsHigh), false),
+        names(readAllPages(new ItemFilter(), "price")));
+    assertEquals(sorted(all, Comparator.comparing(ItemResponse::getPrice, nullsHigh.reversed()), true),
+        names(readAllPages(new ItemFilter(), "price,desc")));
+    assertEquals(sorted(all, Comparator.comparing(ItemResponse::getName).reversed(), true),
+        names(readAllPages(new ItemFilter(), "name,desc")));
+    assertEquals(names(all), names(readAllPages(new ItemFilter(), "createdAt")));
+  }
+
+  @Test
+  void filtersCombine() {
+    ItemFilter filter = ItemFilter.builder().categoryId(tools).minPrice(BigDecimal.valueOf(2))
+        .maxPrice(BigDecimal.valueOf(4)).namePrefix("drill_").build();
+
+    List<ItemResponse> found = readAllPages(filter, "updatedAt,desc");
+
+    assertFalse(found.isEmpty());
+    for (ItemResponse item : found) {
+      assertEquals(tools, item.getCategoryId());
+      assertTrue(item.getPrice().compareTo(BigDecimal.valueOf(2)) >= 0 && item.getPrice().compareTo(BigDecimal.valueOf(4)) <= 0);
+      // "_" is matched literally, so "drillbit" names are excluded
+      assertTrue(item.getName().startsWith("drill_"), item.getName());
+    }
+  }
+
+  private List<ItemFilterRepository.After> positionsFor(ItemSortField sort) {
+    List<ItemFilterRepository.After> positions = new ArrayList<>();
+    positions.add(null);
+    Object value = switch (sort) {
+      case CREATED_AT, UPDATED_AT -> Timestamp.from(Instant.parse("2020-01-01T00:00:00Z"));
+      case NAME -> "drill";
+      case PRICE -> BigDecimal.ONE;
+    };
+    positions.add(new ItemFilterRepository.After(value, 1L));
+    if (sort.nullable()) {
+      positions.add(new ItemFilterRepository.After(null, 1L));
+    }
+    return positions;
+  }
+
+  private String explain(String sql) {
+    return jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql), rs -> {
+      rs.next();
+      return rs.getString(1);
+    });
+  }
+
+  // H2 prints the index used for a table in a comment on the line after it
+  private static String itemsAccess(String plan) {
+    String[] lines = plan.split("\n");
+    for (int i = 0; i < lines.length - 1; i++) {
+      if (lines[i].contains("\"public\".\"items\"")) {
+        return lines[i + 1].trim();
+      }
+    }
+    throw new AssertionError("items not found in plan:\n" + plan);
+  }
+
+  private List<ItemResponse> readAllPages(ItemFilter filter, String sort) {
+    List<ItemResponse> items = new ArrayList<>();
+    String cursor = null;
+    do {
+      ItemPageResponse page = itemService.findItems(filter, sort, cursor, 3);
+      items.addAll(page.getItems());
+      cursor = page.getNextCursor();
+    } while (cursor != null);
+    return items;
+  }
+
+  // Expected order: the comparator, then ids in the direction of the sort (items come in id order)
+  private static List<String> sorted(List<ItemResponse> items, Comparator<ItemResponse> order, boolean descending) {
+    List<ItemResponse> copy = new ArrayList<>(items);
+    if (descending) {
+      Collections.reverse(copy);
+    }
+    copy.sort(order);
+    return names(copy);
+  }
+
+  private static List<String> names(List<ItemResponse> items) {
+    return items.stream().map(ItemResponse::getName).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,156 @@
+package com.xw.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xw.api.common.ChangeAction;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ChangeFeedTests {
+
+  private static final int REPLAY_SIZE = 4;
+  private static final int QUEUE_CAPACITY = 2;
+
+  /* Records each sent event as "id event data"; heartbeats are skipped */
+  private static class RecordingEmitter extends SseEmitter {
+    final List<String> events = new CopyOnWriteArrayList<>();
+    final CountDownLatch completed = new CountDownLatch(1);
+
+    @Override
+    public void send(SseEventBuilder builder) {
+      String frame = builder.build().stream()
+          .map(part -> String.valueOf(part.getData()))
+          .collect(Collectors.joining());
+      if (frame.contains("event:")) {
+        events.add(field(frame, "id:") + " " + field(frame, "event:") + " " + field(frame, "data:"));
+      }
+    }
+
+    @Override
+    public void complete() {
+      completed.countDown();
+    }
+
+    String lastId() {
+      String last = events.get(events.size() - 1);
+      return last.substring(0, last.indexOf(' '));
+    }
+
+    List<String> names() {
+      return events.stream().map(event -> event.split(" ")[1]).toList();
+    }
+
+    private static String field(String frame, String prefix) {
+      int start = frame.indexOf(prefix) + prefix.length();
+      return frame.substring(start, frame.indexOf('\n', start));
+    }
+  }
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private ChangeFeed changeFeed;
+
+  @BeforeEach
+  void setUp() {
+    changeFeed = new ChangeFeed(new ObjectMapper(), meterRegistry, REPLAY_SIZE, QUEUE_CAPACITY, 10,
+        Duration.ofMinutes(1));
+  }
+
+  @AfterEach
+  void tearDown() {
+    changeFeed.shutdown();
+  }
+
+  @Test
+  void resumingReplaysMissedChangesOrResets() throws Exception {
+    RecordingEmitter live = new RecordingEmitter();
+    changeFeed.register(live, null);
+    publish("a");
+    awaitEvents(live, 1);
+    String afterA = live.lastId();
+    publish("b");
+    publish("c");
+    awaitEvents(live, 3);
+
+    RecordingEmitter resumed = new RecordingEmitter();
+    changeFeed.register(resumed, afterA);
+    awaitEvents(resumed, 2);
+    assertEquals(live.events.subList(1, 3), resumed.events);
+
+    // More changes than the replay buffer holds: the client has to reload
+    for (String name : List.of("d", "e", "f", "g")) {
+      publish(name);
+    }
+    RecordingEmitter tooOld = new RecordingEmitter();
+    changeFeed.register(tooOld, afterA);
+    RecordingEmitter fromBeforeRestart = new RecordingEmitter();
+    changeFeed.register(fromBeforeRestart, "0-1");
+    awaitEvents(tooOld, 1);
+    awaitEvents(fromBeforeRestart, 1);
+    assertEquals(List.of(ChangeFeed.RESET_EVENT), tooOld.names());
+    assertEquals(List.of(ChangeFeed.RESET_EVENT), fromBeforeRestart.names());
+
+    // Resuming from the reset's id continues with the next change
+    String resetId = tooOld.lastId();
+    publish("h");
+    RecordingEmitter afterReset = new RecordingEmitter();
+    changeFeed.register(afterReset, resetId);
+    awaitEvents(afterReset, 1);
+    assertTrue(afterReset.events.get(0).contains("\"resourceId\":\"h\""), afterReset.events.get(0));
+  }
+
+  @Test
+  void slowSubscribersAreDroppedWithoutBlockingPublishers() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    RecordingEmitter slow = new RecordingEmitter() {
+      @Override
+      public void send(SseEventBuilder builder) {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+    RecordingEmitter fast = new RecordingEmitter();
+    changeFeed.register(slow, null);
+    changeFeed.register(fast, null);
+
+    // One event is stuck in the slow send, the queue takes QUEUE_CAPACITY more, the next one overflows it;
+    // the fast subscriber keeps up throughout
+    for (int i = 0; i < QUEUE_CAPACITY + 5; i++) {
+      publish("item-" + i);
+      awaitEvents(fast, i + 1);
+    }
+
+    assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+    assertEquals(1.0, meterRegistry.get("changes.subscribers.dropped").counter().count());
+    assertEquals(1.0, meterRegistry.get("changes.subscribers").gauge().value());
+    release.countDown();
+  }
+
+  private void publish(String itemId) {
+    changeFeed.publish(ChangeFeed.ITEM, ChangeAction.DELETED, itemId, null);
+  }
+
+  private static void awaitEvents(RecordingEmitter emitter, int count) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (emitter.events.size() < count && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(count, emitter.events.size(), emitter.events.toString());
+  }
+}
@@ -0,0 +1,95 @@
+package com.xw.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ItemSearchIndexTests {
+
+  private ItemSearchIndex index;
+
+  @BeforeEach
+  void setUp() {
+    // Outside a transaction changes apply immediately and the repository is only used by rebuild()
+    index = new ItemSearchIndex(null);
+  }
+
+  @Test
+  void termMatchesTokensItPrefixes() {
+    index.index(1L, "Cardboard box", null);
+    index.index(2L, "Carton", null);
+    index.index(3L, "Crate", null);
+
+    assertEquals(List.of(1L, 2L), index.search("car", 10));
+    assertEquals(List.of(3L), index.search("cr", 10));
+  }
+
+  @Test
+  void exactMatchRanksAboveLongerPrefixMatch() {
+    index.index(1L, "Carton", null);
+    index.index(2L, "Cart", null);
+
+    assertEquals(List.of(2L, 1L), index.search("cart", 10));
+  }
+
+  @Test
+  void nameMatchRanksAboveDescriptionMatch() {
+    index.index(1L, "Shelf", "holds a lamp");
+    index.index(2L, "Lamp", null);
+
+    assertEquals(List.of(2L, 1L), index.search("lamp", 10));
+  }
+
+  @Test
+  void itemsMatchingMoreTermsComeFirst() {
+    // The description-only double match still beats the strong single-term name match
+    index.index(1L, "Red red red", null);
+    index.index(2L, "Chair", "red lamp");
+    index.index(3L, "Lamp", null);
+
+    List<Long> hits = index.search("red lamp", 10);
+
+    assertEquals(2L, hits.get(0));
+    assertEquals(3, hits.size());
+  }
+
+  @Test
+  void limitKeepsOnlyTheBestHits() {
+    index.index(1L, "Lamp", null);
+    index.index(2L, "Desk", "lamp");
+    index.index(3L, "Lampshade", null);
+
+    assertEquals(List.of(1L, 3L), index.search("lamp", 2));
+  }
+
+  @Test
+  void prefixExpansionIsCapped() {
+    for (long id = 0; id < 200; id++) {
+      index.index(id, String.format("p%03d", id), null);
+    }
+
+    List<Long> hits = index.search("p", 500);
+
+    // Only the first 128 tokens in sort order are expanded
+    assertEquals(128, hits.size());
+    assertTrue(hits.stream().allMatch(id -> id < 128));
+    assertEquals(List.of(150L), index.search("p150", 500));
+  }
+
+  @Test
+  void reindexingReplacesTokensAndRemoveDropsThem() {
+    index.index(1L, "Blue bottle", null);
+    index.index(1L, "Green bottle", null);
+
+    assertEquals(List.of(), index.search("blue", 10));
+    assertEquals(List.of(1L), index.search("green", 10));
+
+    index.remove(1L);
+
+    assertEquals(List.of(), index.search("bottle", 10));
+  }
+}
@@ -0,0 +1,234 @@
+package com.xw.api.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.xw.api.TestFixtures;
+import com.xw.api.dto.CategoryRequest;
+import com.xw.api.dto.CategoryResponse;
+import com.xw.api.dto.ItemRequest;
+import com.xw.api.dto.ItemResponse;
+import com.xw.api.dto.ResourceVersion;
+import com.xw.api.dto.VersionedResponse;
+import com.xw.api.exception.VersionConflictException;
+import com.xw.api.repository.CategoryRepository;
+import com.xw.api.service.CategoryItemsCountReconciler;
+import com.xw.api.service.CategoryService;
+import com.xw.api.service.ItemService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class CategoryServiceImplementationTests {
+
+  @Autowired
+  private TestFixtures fixtures;
+
+  @Autowired
+  private CategoryService categoryService;
+
+  @Autowired
+  private ItemService itemService;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private CategoryItemsCountReconciler itemsCountReconciler;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    fixtures.clearCatalog();
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Test
+  void getAllCategoriesRunsConstantNumberOfStatements() {
+    createCategoriesWithItems(3, 2);
+    long fewCategories = countStatements(() -> categoryService.getAllCategories());
+
+    createCategoriesWithItems(30, 2);
+    long manyCategories = countStatements(() -> categoryService.getAllCategories());
+
+    assertEquals(1, fewCategories);
+    assertEquals(fewCategories, manyCategories);
+  }
+
+  @Test
+  void getAllCategoriesReturnsItemCounts() {
+    createCategoriesWithItems(2, 3);
+    categoryService.createCategory(CategoryRequest.builder().name("empty").build());
+
+    List<CategoryResponse> categories = categoryService.getAllCategories();
+
+    assertEquals(3, categories.size());
+    assertEquals(6, categories.stream().mapToInt(CategoryResponse::getItemsCount).sum());
+    assertEquals(0, categories.stream()
+        .filter(c -> c.getName().equals("empty"))
+        .findFirst()
+        .orElseThrow()
+        .getItemsCount());
+  }
+
+  @Test
+  void getCategoryByIdRunsSingleStatement() {
+    String categoryId = createCategoriesWithItems(1, 5).get(0).getCategoryId();
+
+    long statements = countStatements(() -> assertEquals(5,
+        categoryService.getCategoryById(categoryId).orElseThrow().getItemsCount()));
+
+    assertEquals(1, statements);
+  }
+
+  @Test
+  void itemPathsResolveCategoriesFromCacheUntilTheCategoryChanges() {
+    String categoryId = createCategoriesWithItems(1, 1).get(0).getCategoryId();
+    itemService.countItemsByCategory(categoryId);
+
+    long cachedCount = countStatements(() -> assertEquals(1, itemService.countItemsByCategory(categoryId)));
+    categoryService.updateCategory(categoryId, CategoryRequest.builder().name("renamed").build(), null);
+    ItemResponse created = itemService.createItem(ItemRequest.builder()
+        .name("after-rename")
+        .price(BigDecimal.ONE)
+        .categoryId(categoryId)
+        .build());
+
+    assertEquals(1, cachedCount);
+    assertEquals("renamed", created.getCategoryName());
+  }
+
+  @Test
+  void conditionalUpdatesNameTheVersionTheyRead() {
+    String categoryId = createCategoriesWithItems(1, 1).get(0).getCategoryId();
+    Long read = ResourceVersion.requiredVersion(categoryService.getCategoryVersion(categoryId).orElseThrow().etag());
+
+    // New items change the count, and with it the ETag, but not the version a rename has to match
+    itemService.createItem(ItemRequest.builder().name("another").categoryId(categoryId).build());
+    VersionedResponse<CategoryResponse> renamed = categoryService.updateCategory(categoryId,
+        CategoryRequest.builder().name("renamed").build(), read);
+    assertEquals(read + 1, ResourceVersion.requiredVersion(renamed.version().etag()));
+
+    VersionConflictException stale = assertThrows(VersionConflictException.class, () -> categoryService
+        .updateCategory(categoryId, CategoryRequest.builder().name("lost").build(), read));
+    assertTrue(stale.isConditional());
+    assertEquals("renamed", categoryService.getCategoryById(categoryId).orElseThrow().getName());
+  }
+
+  @Test
+  void categoryListIsServedFromCacheWithItsVersionUntilAnItemChangesTheCounts() {
+    String categoryId = createCategoriesWithItems(2, 1).get(0).getCategoryId();
+    VersionedResponse<List<CategoryResponse>> first = categoryService.getVersionedCategories();
+
+    long cachedRead = countStatements(() -> categoryService.getVersionedCategories());
+    itemService.createItem(ItemRequest.builder()
+        .name("one-more")
+        .price(BigDecimal.ONE)
+        .categoryId(categoryId)
+        .build());
+    VersionedResponse<List<CategoryResponse>> second = categoryService.getVersionedCategories();
+
+    assertEquals(0, cachedRead);
+    assertEquals(2, first.body().stream().mapToInt(CategoryResponse::getItemsCount).sum());
+    assertEquals(3, second.body().stream().mapToInt(CategoryResponse::getItemsCount).sum());
+    assertNotEquals(first.version().etag(), second.version().etag());
+    assertEquals(categoryService.getCategoriesVersion(), second.version());
+  }
+
+  @Test
+  void concurrentItemWritesKeepTheMaintainedCountExact() throws Exception {
+    List<CategoryResponse> categories = createCategoriesWithItems(2, 0);
+    String source = categories.get(0).getCategoryId();
+    String target = categories.get(1).getCategoryId();
+    int writers = 8;
+    int itemsPerWriter = 5;
+
+    ExecutorService executor = Executors.newFixedThreadPool(writers);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int w = 0; w < writers; w++) {
+        int writer = w;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < itemsPerWriter; i++) {
+            itemService.createItem(ItemRequest.builder()
+                .name("concurrent-" + writer + "-" + i)
+                .price(BigDecimal.ONE)
+                .categoryId(source)
+                .build());
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    List<ItemResponse> items = itemService.getItemsByCategory(source, null, 3).getItems();
+    itemService.updateItem(items.get(0).getItemId(), ItemRequest.builder().categoryId(target).build(), null);
+    itemService.deleteItem(items.get(1).getItemId());
+
+    assertEquals(writers * itemsPerWriter - 2, itemService.countItemsByCategory(source));
+    assertEquals(1, itemService.countItemsByCategory(target));
+    assertEquals(0, itemsCountReconciler.reconcile());
+  }
+
+  @Test
+  void reconcileRepairsDriftedCounts() {
+    CategoryResponse category = createCategoriesWithItems(1, 3).get(0);
+    Long id = categoryRepository.findByCategoryId(category.getCategoryId()).orElseThrow().getId();
+    transactionTemplate.executeWithoutResult(status -> categoryRepository.setItemsCount(id, 42));
+
+    assertEquals(1, itemsCountReconciler.reconcile());
+    assertEquals(3, itemService.countItemsByCategory(category.getCategoryId()));
+  }
+
+  private List<CategoryResponse> createCategoriesWithItems(int categories, int itemsPerCategory) {
+    long offset = categoryRepository.count();
+    List<CategoryResponse> created = new ArrayList<>();
+    for (long c = offset; c < offset + categories; c++) {
+      CategoryResponse category = categoryService.createCategory(CategoryRequest.builder()
+          .name("category-" + c)
+          .build());
+      for (int i = 0; i < itemsPerCategory; i++) {
+        itemService.createItem(ItemRequest.builder()
+            .name("item-" + c + "-" + i)
+            .price(BigDecimal.ONE)
+            .categoryId(category.getCategoryId())
+            .build());
+      }
+      created.add(category);
+    }
+    return created;
+  }
+
+  private long countStatements(Runnable action) {
+    statistics.clear();
+    action.run();
+    return statistics.getPrepareStatementCount();
+  }
+}
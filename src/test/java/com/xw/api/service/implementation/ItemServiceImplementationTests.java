@@ -0,0 +1,391 @@
+package com.xw.api.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xw.api.TestFixtures;
+import com.xw.api.dto.ItemBatchError;
+import com.xw.api.dto.ItemBatchResponse;
+import com.xw.api.dto.ItemBulkDeleteRequest;
+import com.xw.api.dto.ItemBulkResponse;
+import com.xw.api.dto.ItemFilter;
+import com.xw.api.dto.ItemPageResponse;
+import com.xw.api.dto.ItemPriceChangeRequest;
+import com.xw.api.dto.ItemReassignRequest;
+import com.xw.api.dto.ItemRequest;
+import com.xw.api.dto.ItemResponse;
+import com.xw.api.repository.ItemRepository;
+import com.xw.api.service.CategoryItemsCountReconciler;
+import com.xw.api.service.ItemService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class ItemServiceImplementationTests {
+
+  @Autowired
+  private TestFixtures fixtures;
+
+  @Autowired
+  private ItemService itemService;
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private CategoryItemsCountReconciler itemsCountReconciler;
+
+  private Statistics statistics;
+  private String source;
+  private String target;
+
+  @BeforeEach
+  void setUp() {
+    fixtures.clearCatalog();
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    source = fixtures.createCategory("source");
+    target = fixtures.createCategory("target");
+  }
+
+  @Test
+  void cursorPagesVisitEveryItemOnceInCreationOrder() {
+    List<String> created = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      created.add(createItem("item-" + i, i % 2 == 0 ? source : target).getItemId());
+    }
+    // Rows sharing a creation time are ordered by id, so the cursor must carry both
+    jdbcTemplate.update("UPDATE items SET created_at = (SELECT MIN(created_at) FROM items)");
+
+    List<String> visited = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      ItemPageResponse page = itemService.getAllItems(cursor, 3);
+      page.getItems().forEach(item -> visited.add(item.getItemId()));
+      cursor = page.getNextCursor();
+      pages++;
+    } while (cursor != null);
+
+    assertEquals(created, visited);
+    assertEquals(3, pages);
+  }
+
+  @Test
+  void categoryPagesOnlyVisitThatCategory() {
+    List<String> inSource = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      ItemResponse item = createItem("item-" + i, i < 3 ? source : target);
+      if (i < 3) {
+        inSource.add(item.getItemId());
+      }
+    }
+
+    ItemPageResponse first = itemService.getItemsByCategory(source, null, 2);
+    ItemPageResponse second = itemService.getItemsByCategory(source, first.getNextCursor(), 2);
+
+    List<String> visited = new ArrayList<>();
+    first.getItems().forEach(item -> visited.add(item.getItemId()));
+    second.getItems().forEach(item -> visited.add(item.getItemId()));
+    assertEquals(inSource, visited);
+    assertNull(second.getNextCursor());
+  }
+
+  @Test
+  void malformedCursorIsABadRequest() {
+    ResponseStatusException error = assertThrows(ResponseStatusException.class,
+        () -> itemService.getAllItems("not-a-cursor", 10));
+    assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+  }
+
+  @Test
+  void exportWritesOneJsonLinePerItemInCreationOrder() throws IOException {
+    List<String> created = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      created.add(createItem("item-" + i, i % 2 == 0 ? source : target).getItemId());
+    }
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    itemService.exportItems(out);
+
+    String body = out.toString(StandardCharsets.UTF_8);
+    assertTrue(body.endsWith("\n"));
+    List<ItemResponse> lines = new ArrayList<>();
+    for (String line : body.split("\n")) {
+      lines.add(objectMapper.readValue(line, ItemResponse.class));
+    }
+    assertEquals(created, lines.stream().map(ItemResponse::getItemId).toList());
+    assertEquals("source", lines.get(0).getCategoryName());
+    assertEquals("target", lines.get(1).getCategoryName());
+  }
+
+  @Test
+  void importKeepsRowIndexesAcrossMalformedLinesAndChunks() throws IOException {
+    String ndjson = String.join("\n",
+        line("a", source),
+        "{not json",
+        line("b", target),
+        "",
+        line("c", source),
+        line("d", "missing"),
+        line("e", target)) + "\n";
+
+    ItemBatchResponse response = itemService.importItems(
+        new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+    // The blank line is skipped and does not take an index
+    assertEquals(6, response.getReceived());
+    assertEquals(4, response.getCreated());
+    assertEquals(List.of(1, 4), indexes(response));
+    assertTrue(response.getErrors().get(0).getMessage().startsWith("Malformed JSON"));
+    assertEquals("Invalid category ID: missing", response.getErrors().get(1).getMessage());
+    assertEquals(4, itemRepository.count());
+  }
+
+  @Test
+  void importRejectsDuplicateNamesWithinAndAcrossChunks() {
+    createItem("existing", source);
+
+    // Chunks of three: [fresh, fresh, existing] [other, fresh, other]
+    ItemBatchResponse response = itemService.importItems(List.of(
+        request("fresh", source),
+        request("fresh", target),
+        request("existing", source),
+        request("other", target),
+        request("fresh", source),
+        request("other", source)));
+
+    assertEquals(6, response.getReceived());
+    assertEquals(2, response.getCreated());
+    assertEquals(List.of(1, 2, 4, 5), indexes(response));
+    assertEquals(3, itemRepository.count());
+  }
+
+  @Test
+  void importFallsBackToSingleRowsAndReportsOnlyTheFailingRow() {
+    // Longer than the name column: passes validation but fails the batched insert
+    String tooLong = "x".repeat(300);
+
+    ItemBatchResponse response = itemService.importItems(List.of(
+        request("first", source),
+        request(tooLong, source),
+        request("third", target)));
+
+    assertEquals(2, response.getCreated());
+    assertEquals(List.of(1), indexes(response));
+    assertEquals(tooLong, response.getErrors().get(0).getName());
+    assertEquals(List.of("first", "third"),
+        jdbcTemplate.queryForList("SELECT name FROM items ORDER BY name", String.class));
+  }
+
+  @Test
+  void searchFollowsUpdatesAndDeletes() {
+    ItemResponse item = createItem("Walnut desk", source);
+    assertEquals(List.of(item.getItemId()), searchIds("walnut"));
+
+    itemService.updateItem(item.getItemId(), ItemRequest.builder().name("Oak desk").build(), null);
+    assertEquals(List.of(), searchIds("walnut"));
+    assertEquals(List.of(item.getItemId()), searchIds("oak"));
+
+    itemService.deleteItem(item.getItemId());
+    assertEquals(List.of(), searchIds("oak"));
+  }
+
+  @Test
+  void searchIgnoresChangesThatRolledBack() {
+    ItemResponse item = createItem("Maple stool", source);
+
+    transactionTemplate.executeWithoutResult(status -> {
+      itemService.updateItem(item.getItemId(), ItemRequest.builder().name("Birch stool").build(), null);
+      status.setRollbackOnly();
+    });
+    transactionTemplate.executeWithoutResult(status -> {
+      itemService.deleteItem(item.getItemId());
+      status.setRollbackOnly();
+    });
+
+    assertEquals(List.of(), searchIds("birch"));
+    assertEquals(List.of(item.getItemId()), searchIds("maple"));
+  }
+
+  @Test
+  void reassignMovesEveryItemWithOneUpdate() {
+    createItems(source, 30, BigDecimal.TEN);
+    createItems(target, 2, BigDecimal.TEN);
+
+    long statements = countStatements(() -> assertEquals(30, itemService.reassignItems(
+        ItemReassignRequest.builder().fromCategoryId(source).toCategoryId(target).build()).getAffected()));
+
+    // The move itself plus one count adjustment per category
+    assertEquals(3, statements);
+    assertEquals(0, itemService.countItemsByCategory(source));
+    assertEquals(32, itemService.countItemsByCategory(target));
+    assertEquals(0, itemsCountReconciler.reconcile());
+  }
+
+  @Test
+  void priceChangesApplyToTheFilteredItemsOnly() {
+    List<ItemResponse> cheap = createItems(source, 3, new BigDecimal("10.00"));
+    List<ItemResponse> dear = createItems(source, 2, new BigDecimal("100.00"));
+    List<ItemResponse> elsewhere = createItems(target, 2, new BigDecimal("10.00"));
+    itemService.createItem(ItemRequest.builder().name("unpriced").categoryId(source).build());
+    ItemFilter filter = ItemFilter.builder().categoryId(source).maxPrice(new BigDecimal("50")).build();
+
+    ItemBulkResponse raised = itemService.changePrices(
+        ItemPriceChangeRequest.builder().filter(filter).percent(new BigDecimal("12.5")).build());
+    ItemBulkResponse lowered = itemService.changePrices(
+        ItemPriceChangeRequest.builder().filter(ItemFilter.builder().categoryId(source).build())
+            .amount(new BigDecimal("-1.25")).build());
+
+    assertEquals(3, raised.getAffected());
+    assertEquals(5, lowered.getAffected());
+    assertEquals(new BigDecimal("10.00"), priceOf(cheap.get(0)));
+    assertEquals(new BigDecimal("98.75"), priceOf(dear.get(0)));
+    assertEquals(new BigDecimal("10.00"), priceOf(elsewhere.get(0)));
+    assertNull(itemService.getItemById(itemRepository.findAll().stream()
+        .filter(item -> item.getName().equals("unpriced")).findFirst().orElseThrow().getItemId())
+        .orElseThrow().getPrice());
+  }
+
+  @Test
+  void bulkDeleteReportsMissingIdsAndKeepsCountsExact() {
+    List<ItemResponse> fromSource = createItems(source, 4, BigDecimal.ONE);
+    List<ItemResponse> fromTarget = createItems(target, 3, BigDecimal.ONE);
+    List<String> itemIds = new ArrayList<>();
+    itemIds.add(fromSource.get(0).getItemId());
+    itemIds.add(fromSource.get(1).getItemId());
+    itemIds.add(fromTarget.get(0).getItemId());
+    itemIds.add("no-such-item");
+
+    ItemBulkResponse response = itemService.deleteItems(ItemBulkDeleteRequest.builder().itemIds(itemIds).build());
+
+    assertEquals(3, response.getAffected());
+    assertEquals(List.of("no-such-item"), response.getMissingItemIds());
+    assertEquals(2, itemService.countItemsByCategory(source));
+    assertEquals(2, itemService.countItemsByCategory(target));
+    assertFalse(itemService.getItemById(fromSource.get(0).getItemId()).isPresent());
+    assertEquals(0, itemsCountReconciler.reconcile());
+  }
+
+  @Test
+  void priceChangesRequireAFilterCondition() {
+    createItems(source, 2, BigDecimal.TEN);
+
+    for (ItemFilter filter : new ItemFilter[] {null, new ItemFilter(), ItemFilter.builder().namePrefix("").build()}) {
+      ResponseStatusException rejected = assertThrows(ResponseStatusException.class, () -> itemService.changePrices(
+          ItemPriceChangeRequest.builder().filter(filter).amount(BigDecimal.ONE).build()));
+      assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+    }
+    assertTrue(itemRepository.findAll().stream().allMatch(item -> item.getPrice().compareTo(BigDecimal.TEN) == 0));
+  }
+
+  @Test
+  void priceChangesRejectCutsOfAHundredPercentOrMore() {
+    createItems(source, 1, BigDecimal.TEN);
+    ItemFilter filter = ItemFilter.builder().categoryId(source).build();
+
+    for (String percent : new String[] {"-100", "-150"}) {
+      ResponseStatusException rejected = assertThrows(ResponseStatusException.class, () -> itemService.changePrices(
+          ItemPriceChangeRequest.builder().filter(filter).percent(new BigDecimal(percent)).build()));
+      assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+    }
+    assertEquals(1, itemService.changePrices(
+        ItemPriceChangeRequest.builder().filter(filter).percent(new BigDecimal("-99.5")).build()).getAffected());
+  }
+
+  @Test
+  void priceChangesSkipItemsTheyWouldTakeBelowZero() {
+    ItemResponse cheap = createItems(source, 1, new BigDecimal("1.00")).get(0);
+    ItemResponse dear = createItems(source, 1, new BigDecimal("5.00")).get(0);
+
+    ItemBulkResponse lowered = itemService.changePrices(ItemPriceChangeRequest.builder()
+        .filter(ItemFilter.builder().categoryId(source).build())
+        .amount(new BigDecimal("-2.00"))
+        .build());
+
+    assertEquals(1, lowered.getAffected());
+    assertEquals(new BigDecimal("1.00"), priceOf(cheap));
+    assertEquals(new BigDecimal("3.00"), priceOf(dear));
+  }
+
+  private ItemResponse createItem(String name, String categoryId) {
+    return itemService.createItem(request(name, categoryId));
+  }
+
+  private ItemRequest request(String name, String categoryId) {
+    return ItemRequest.builder()
+        .name(name)
+        .price(BigDecimal.ONE)
+        .categoryId(categoryId)
+        .build();
+  }
+
+  private String line(String name, String categoryId) throws IOException {
+    return objectMapper.writeValueAsString(request(name, categoryId));
+  }
+
+  private List<String> searchIds(String query) {
+    return itemService.searchItems(query, null).stream().map(ItemResponse::getItemId).toList();
+  }
+
+  private static List<Integer> indexes(ItemBatchResponse response) {
+    return response.getErrors().stream().map(ItemBatchError::getIndex).toList();
+  }
+
+  private List<ItemResponse> createItems(String categoryId, int count, BigDecimal price) {
+    long offset = itemRepository.count();
+    List<ItemResponse> created = new ArrayList<>();
+    for (long i = offset; i < offset + count; i++) {
+      created.add(itemService.createItem(ItemRequest.builder()
+          .name("item-" + i)
+          .price(price)
+          .categoryId(categoryId)
+          .build()));
+    }
+    return created;
+  }
+
+  private BigDecimal priceOf(ItemResponse item) {
+    return itemService.getItemById(item.getItemId()).orElseThrow().getPrice();
+  }
+
+  private long countStatements(Runnable action) {
+    statistics.clear();
+    action.run();
+    return statistics.getPrepareStatementCount();
+  }
+}
@@ -0,0 +1,156 @@
+package com.xw.api.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.xw.api.TestFixtures;
+import com.xw.api.dto.ChangeSetResponse;
+import com.xw.api.dto.ItemRequest;
+import com.xw.api.dto.ItemResponse;
+import com.xw.api.repository.TombstoneRepository;
+import com.xw.api.service.ChangeFeed;
+import com.xw.api.service.ItemService;
+import com.xw.api.service.SyncService;
+import com.xw.api.service.TombstoneCompactor;
+
+@SpringBootTest
+class SyncServiceImplementationTests {
+
+  @Autowired
+  private TestFixtures fixtures;
+
+  @Autowired
+  private SyncService syncService;
+
+  @Autowired
+  private ItemService itemService;
+
+  @Autowired
+  private TombstoneRepository tombstoneRepository;
+
+  @Autowired
+  private TombstoneCompactor tombstoneCompactor;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  private String categoryId;
+
+  @BeforeEach
+  void setUp() {
+    categoryId = fixtures.resetCatalog();
+    tombstoneRepository.deleteAll();
+  }
+
+  @Test
+  void deltaSinceWatermarkHasChangesAndTombstones() throws InterruptedException {
+    ItemResponse drill = createItem("drill");
+    ItemResponse saw = createItem("saw");
+    createItem("hammer");
+
+    ChangeSetResponse full = syncService.getChanges(null, null, null);
+    assertEquals(3, full.getItems().size());
+    assertEquals(1, full.getCategories().size());
+    assertTrue(full.getDeleted().isEmpty());
+    assertNull(full.getNextCursor());
+
+    Thread.sleep(5);
+    itemService.updateItem(drill.getItemId(), ItemRequest.builder().price(BigDecimal.TEN).build(), null);
+    itemService.deleteItem(saw.getItemId());
+
+    ChangeSetResponse delta = syncService.getChanges(full.getWatermark(), null, null);
+    assertEquals(List.of(drill.getItemId()), delta.getItems().stream().map(ItemResponse::getItemId).toList());
+    assertEquals(0, BigDecimal.TEN.compareTo(delta.getItems().get(0).getPrice()));
+    // The delete changed the category's item count, so the category is part of the delta with its new count
+    assertEquals(1, delta.getCategories().size());
+    assertEquals(2, delta.getCategories().get(0).getItemsCount());
+    assertEquals(1, delta.getDeleted().size());
+    assertEquals(ChangeFeed.ITEM, delta.getDeleted().get(0).getResource());
+    assertEquals(saw.getItemId(), delta.getDeleted().get(0).getResourceId());
+
+    // Nothing changed since the delta
+    Thread.sleep(5);
+    ChangeSetResponse empty = syncService.getChanges(delta.getWatermark(), null, null);
+    assertTrue(empty.getItems().isEmpty());
+    assertTrue(empty.getCategories().isEmpty());
+    assertTrue(empty.getDeleted().isEmpty());
+  }
+
+  @Test
+  void largeChangeSetsArePagedThroughTheCursor() {
+    Set<String> created = new HashSet<>();
+    for (int i = 0; i < 5; i++) {
+      created.add(createItem("item-" + i).getItemId());
+    }
+
+    List<String> synced = new ArrayList<>();
+    int categories = 0;
+    ChangeSetResponse page = syncService.getChanges(null, null, 2);
+    String watermark = page.getWatermark();
+    assertNotNull(page.getNextCursor());
+    while (true) {
+      assertTrue(page.getItems().size() <= 2);
+      assertEquals(watermark, page.getWatermark());
+      page.getItems().forEach(item -> synced.add(item.getItemId()));
+      categories += page.getCategories().size();
+      if (page.getNextCursor() == null) {
+        break;
+      }
+      page = syncService.getChanges(null, page.getNextCursor(), 2);
+    }
+
+    assertEquals(5, synced.size());
+    assertEquals(created, new HashSet<>(synced));
+    assertEquals(1, categories);
+  }
+
+  @Test
+  void watermarksOlderThanTheTombstonesAreGone() {
+    String expired = Instant.now().minus(Duration.ofDays(31)).toString();
+    ResponseStatusException gone = assertThrows(ResponseStatusException.class,
+        () -> syncService.getChanges(expired, null, null));
+    assertEquals(HttpStatus.GONE, gone.getStatusCode());
+
+    ResponseStatusException invalid = assertThrows(ResponseStatusException.class,
+        () -> syncService.getChanges("yesterday", null, null));
+    assertEquals(HttpStatus.BAD_REQUEST, invalid.getStatusCode());
+  }
+
+  @Test
+  void compactionDropsOnlyExpiredTombstones() {
+    Timestamp expired = Timestamp.from(Instant.now().minus(Duration.ofDays(31)));
+    Timestamp recent = new Timestamp(System.currentTimeMillis());
+    transactionTemplate.executeWithoutResult(status -> {
+      tombstoneRepository.record("expired", ChangeFeed.ITEM, expired);
+      tombstoneRepository.record("recent", ChangeFeed.CATEGORY, recent);
+    });
+
+    assertEquals(1, tombstoneCompactor.compact());
+    assertTrue(tombstoneRepository.findById("expired").isEmpty());
+    assertTrue(tombstoneRepository.findById("recent").isPresent());
+  }
+
+  private ItemResponse createItem(String name) {
+    return itemService.createItem(ItemRequest.builder().name(name).categoryId(categoryId).build());
+  }
+}
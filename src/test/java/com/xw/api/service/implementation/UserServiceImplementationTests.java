@@ -0,0 +1,275 @@
+package com.xw.api.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.xw.api.common.UserRole;
+import com.xw.api.dto.SessionResponse;
+import com.xw.api.dto.UserRequest;
+import com.xw.api.entity.UserEntity;
+import com.xw.api.repository.UserRepository;
+import com.xw.api.repository.projection.UserTokenRow;
+import com.xw.api.service.LastLoginBuffer;
+import com.xw.api.service.TokenEpochRegistry;
+import com.xw.api.service.UserService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class UserServiceImplementationTests {
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private UserDetailsService userDetailsService;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private TokenEpochRegistry tokenEpochRegistry;
+
+  @Autowired
+  private AuthenticationManager authenticationManager;
+
+  @Autowired
+  private PasswordEncoder passwordEncoder;
+
+  @Autowired
+  private LastLoginBuffer lastLoginBuffer;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Value("${app.superuser.email}")
+  private String superuserEmail;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Test
+  void sessionSnapshotFlagsOnlyTheFirstLoginInOneStatementEach() {
+    String email = "session-" + UUID.randomUUID() + "@example.com";
+    userRepository.save(UserEntity.builder()
+        .userId(UUID.randomUUID().toString())
+        .username("session")
+        .userEmail(email)
+        .password("unused")
+        .role(UserRole.ROLE_USER)
+        .build());
+    UserDetails principal = userDetailsService.loadUserByUsername(email);
+
+    statistics.clear();
+    SessionResponse first = userService.getSessionSnapshot(principal);
+    long firstStatements = statistics.getPrepareStatementCount();
+
+    statistics.clear();
+    SessionResponse second = userService.getSessionSnapshot(principal);
+    long secondStatements = statistics.getPrepareStatementCount();
+
+    assertEquals(email, first.getUserEmail());
+    assertEquals(UserRole.ROLE_USER.name(), first.getRole());
+    assertTrue(first.isFirstLogin());
+    assertFalse(second.isFirstLogin());
+    assertEquals(1, firstStatements);
+    assertEquals(1, secondStatements);
+    assertNotNull(userRepository.findByUserEmail(email).orElseThrow().getLastLoginAt());
+  }
+
+  @Test
+  void loginErasesCredentialsWithoutBreakingTheNextLogin() {
+    String email = "login-" + UUID.randomUUID() + "@example.com";
+    userRepository.save(UserEntity.builder()
+        .userId(UUID.randomUUID().toString())
+        .username("login")
+        .userEmail(email)
+        .password(passwordEncoder.encode("secret"))
+        .role(UserRole.ROLE_USER)
+        .build());
+
+    for (int i = 0; i < 2; i++) {
+      Authentication authentication = authenticationManager.authenticate(
+          new UsernamePasswordAuthenticationToken(email, "secret"));
+      assertNull(authentication.getCredentials());
+      assertNull(((UserDetails) authentication.getPrincipal()).getPassword());
+    }
+  }
+
+  @Test
+  void passwordChangeRevokesTokensIssuedUnderThePreviousEpoch() {
+    String email = "epoch-" + UUID.randomUUID() + "@example.com";
+    String userId = userRepository.save(UserEntity.builder()
+        .userId(UUID.randomUUID().toString())
+        .username("epoch")
+        .userEmail(email)
+        .password("unused")
+        .role(UserRole.ROLE_USER)
+        .build()).getUserId();
+    assertTrue(tokenEpochRegistry.isCurrent(userId, 0L));
+
+    SecurityContextHolder.getContext().setAuthentication(
+        new TestingAuthenticationToken(superuserEmail, null, UserRole.ROLE_ROOT.name()));
+    try {
+      userService.updateUser(email, UserRequest.builder().password("changed").build(), null);
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+
+    assertFalse(tokenEpochRegistry.isCurrent(userId, 0L));
+    assertTrue(tokenEpochRegistry.isCurrent(userId, 1L));
+  }
+
+  @Test
+  void epochChangesFromAnotherNodeApplyOnceTheCachedEpochExpires() throws InterruptedException {
+    TokenEpochRegistry registry = new TokenEpochRegistry(userRepository, Duration.ofMillis(1));
+    UserEntity user = userRepository.save(UserEntity.builder()
+        .userId(UUID.randomUUID().toString())
+        .username("remote")
+        .userEmail("remote-" + UUID.randomUUID() + "@example.com")
+        .password("unused")
+        .role(UserRole.ROLE_USER)
+        .build());
+    assertTrue(registry.isCurrent(user.getUserId(), 0L));
+
+    // Written straight to the table, as another node would
+    user.setTokenEpoch(1L);
+    user = userRepository.save(user);
+    Thread.sleep(5);
+    assertFalse(registry.isCurrent(user.getUserId(), 0L));
+    assertTrue(registry.isCurrent(user.getUserId(), 1L));
+
+    userRepository.delete(user);
+    Thread.sleep(5);
+    assertFalse(registry.isCurrent(user.getUserId(), 1L));
+  }
+
+  @Test
+  void repeatLoginsAreBufferedWithoutStatementsUntilFlushed() {
+    Timestamp earlier = new Timestamp(System.currentTimeMillis() - 60_000);
+    List<UserEntity> users = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      users.add(userRepository.save(UserEntity.builder()
+          .userId(UUID.randomUUID().toString())
+          .username("returning-" + i)
+          .userEmail("returning-" + UUID.randomUUID() + "@example.com")
+          .password("unused")
+          .role(UserRole.ROLE_USER)
+          .lastLoginAt(earlier)
+          .build()));
+    }
+    lastLoginBuffer.flush();
+
+    List<UserTokenRow> tokenRows = users.stream()
+        .map(user -> userService.getTokenRow(user.getUserEmail()))
+        .toList();
+
+    statistics.clear();
+    for (UserTokenRow tokenRow : tokenRows) {
+      userService.recordLogin(tokenRow);
+      userService.recordLogin(tokenRow);
+    }
+    assertEquals(0, statistics.getPrepareStatementCount());
+    assertEquals(users.size(), lastLoginBuffer.pendingCount());
+
+    lastLoginBuffer.flush();
+    assertEquals(0, lastLoginBuffer.pendingCount());
+
+    for (UserEntity user : users) {
+      UserEntity stored = userRepository.findByUserId(user.getUserId()).orElseThrow();
+      assertTrue(stored.getLastLoginAt().after(earlier));
+      assertEquals(user.getUpdatedAt(), stored.getUpdatedAt());
+    }
+  }
+
+  @Test
+  void flushWritesEachUsersOwnLoginTime() {
+    long base = System.currentTimeMillis() - 60_000;
+    Timestamp newest = new Timestamp(base + 30_000);
+    List<UserEntity> users = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      users.add(userRepository.save(UserEntity.builder()
+          .userId(UUID.randomUUID().toString())
+          .username("flushed-" + i)
+          .userEmail("flushed-" + UUID.randomUUID() + "@example.com")
+          .password("unused")
+          .role(UserRole.ROLE_USER)
+          // The last user already has a later login stored, which the flush must keep
+          .lastLoginAt(i == 2 ? newest : new Timestamp(base))
+          .build()));
+    }
+    lastLoginBuffer.flush();
+
+    for (int i = 0; i < users.size(); i++) {
+      lastLoginBuffer.record(users.get(i).getUserId(), new Timestamp(base + 1_000 * (i + 1)));
+    }
+    lastLoginBuffer.flush();
+
+    assertEquals(base + 1_000, lastLoginAt(users.get(0)));
+    assertEquals(base + 2_000, lastLoginAt(users.get(1)));
+    assertEquals(newest.getTime(), lastLoginAt(users.get(2)));
+  }
+
+  private long lastLoginAt(UserEntity user) {
+    return userRepository.findByUserId(user.getUserId()).orElseThrow().getLastLoginAt().getTime();
+  }
+
+  @Test
+  void savingALoadedUserKeepsALoginRecordedMeanwhile() {
+    UserEntity user = userRepository.save(UserEntity.builder()
+        .userId(UUID.randomUUID().toString())
+        .username("stale")
+        .userEmail("stale-" + UUID.randomUUID() + "@example.com")
+        .password("unused")
+        .role(UserRole.ROLE_USER)
+        .lastLoginAt(new Timestamp(System.currentTimeMillis() - 60_000))
+        .build());
+    Timestamp loginAt = new Timestamp(System.currentTimeMillis());
+
+    transactionTemplate.executeWithoutResult(status -> {
+      UserEntity loaded = userRepository.findByUserId(user.getUserId()).orElseThrow();
+      userRepository.updateLastLoginAt(Map.of(user.getUserId(), loginAt));
+      loaded.setUsername("renamed");
+      userRepository.saveAndFlush(loaded);
+    });
+
+    UserEntity stored = userRepository.findByUserId(user.getUserId()).orElseThrow();
+    assertEquals("renamed", stored.getUsername());
+    assertEquals(loginAt.getTime(), stored.getLastLoginAt().getTime());
+    assertEquals(user.getVersion() + 1, stored.getVersion());
+  }
+}
@@ -0,0 +1,88 @@
+package com.xw.api.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.xw.api.exception.PasswordHashingRejectedException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTests {
+
+  private final CountDownLatch hashingStarted = new CountDownLatch(1);
+  private final CountDownLatch releaseHashing = new CountDownLatch(1);
+
+  private ThreadPoolExecutor executor;
+  private SimpleMeterRegistry meterRegistry;
+  private BoundedPasswordEncoder encoder;
+
+  @BeforeEach
+  void setUp() {
+    executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+    meterRegistry = new SimpleMeterRegistry();
+    encoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(), executor, meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    releaseHashing.countDown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  void rejectsImmediatelyWhenQueueIsFull() throws Exception {
+    CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+    assertTrue(hashingStarted.await(5, TimeUnit.SECONDS));
+    CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+    while (executor.getQueue().isEmpty()) {
+      Thread.onSpinWait();
+    }
+
+    assertThrows(PasswordHashingRejectedException.class, () -> encoder.matches("third", "hash:third"));
+
+    releaseHashing.countDown();
+    assertEquals("hash:first", running.get(5, TimeUnit.SECONDS));
+    assertEquals("hash:second", queued.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void recordsQueueWaitAndHashTime() {
+    releaseHashing.countDown();
+
+    assertTrue(encoder.matches("secret", "hash:secret"));
+
+    assertEquals(1, meterRegistry.get("password.hashing.queue.wait").tag("operation", "matches").timer().count());
+    assertEquals(1, meterRegistry.get("password.hashing.duration").tag("operation", "matches").timer().count());
+  }
+
+  private class BlockingPasswordEncoder implements PasswordEncoder {
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+      hashingStarted.countDown();
+      try {
+        releaseHashing.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return "hash:" + rawPassword;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+      return encode(rawPassword).equals(encodedPassword);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.xw.api.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+class JwtUtilsTests {
+
+  private static final String SECRET = "dGVzdC1vbmx5LWp3dC1zZWNyZXQta2V5LWZvci10aGUtd2FyZWhvdXNlLWFwaS10ZXN0cw==";
+
+  private JwtUtils jwtUtils;
+
+  @BeforeEach
+  void setUp() {
+    jwtUtils = new JwtUtils();
+    ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+    ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxSize", 100L);
+    jwtUtils.init();
+  }
+
+  @Test
+  void repeatVerificationsAreAnsweredFromTheCache() {
+    String token = jwtUtils.generateToken("user@example.com", "user-id", "ROLE_USER", 0L);
+
+    JwtUtils.VerifiedToken first = jwtUtils.verify(token);
+    JwtUtils.VerifiedToken second = jwtUtils.verify(token);
+
+    assertEquals("user@example.com", first.subject());
+    assertSame(first, second);
+  }
+
+  @Test
+  void tamperedTokenIsRejectedAfterTheOriginalWasCached() {
+    String token = jwtUtils.generateToken("user@example.com", "user-id", "ROLE_USER", 0L);
+    jwtUtils.verify(token);
+
+    // Same header and signature, different claims
+    String[] parts = token.split("\\.");
+    String forgedClaims = "{\"sub\":\"root@example.com\",\"exp\":" + (System.currentTimeMillis() / 1000 + 3600) + "}";
+    String forged = parts[0] + "."
+        + Base64.getUrlEncoder().withoutPadding().encodeToString(forgedClaims.getBytes(StandardCharsets.UTF_8))
+        + "." + parts[2];
+
+    assertThrows(SignatureException.class, () -> jwtUtils.verify(forged));
+  }
+
+  @Test
+  void cachedTokenIsRejectedOnceItExpires() throws InterruptedException {
+    // JWT expiry has second precision, so expire on a full second at least one second away
+    long expiresAt = (System.currentTimeMillis() / 1000 + 2) * 1000;
+    String token = Jwts.builder()
+        .subject("user@example.com")
+        .expiration(new Date(expiresAt))
+        .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), Jwts.SIG.HS256)
+        .compact();
+    jwtUtils.verify(token);
+
+    Thread.sleep(expiresAt - System.currentTimeMillis() + 50);
+
+    assertThrows(ExpiredJwtException.class, () -> jwtUtils.verify(token));
+  }
+}